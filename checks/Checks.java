@@ -0,0 +1,131 @@
+package checks;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import collection.Person;
+import collectionManager.IntPersonMap;
+import collectionManager.ListenerInterface;
+import collectionManager.PersonMap;
+
+/**
+ * Общие методы случайных проверок: структура данных сравнивается с простой
+ * реализацией на стандартных коллекциях, которая заведомо верна.
+ * Каждая проверка - отдельный класс с методом main, запускается без аргументов,
+ * например java -cp out checks.MapCheck, и при расхождении завершается с AssertionError.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class Checks {
+
+    /**
+     * Проверяет условие.
+     *
+     * @param condition Условие
+     * @param message Сообщение о расхождении
+     */
+    public static void expect(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+
+    /**
+     * Переводит коллекцию ключей в массив в порядке обхода коллекции.
+     *
+     * @param keys Ключи
+     * @return Массив ключей
+     */
+    public static int[] toArray(Collection<Integer> keys) {
+        int[] result = new int[keys.size()];
+        int i = 0;
+        for (int key : keys) {
+            result[i++] = key;
+        }
+        return result;
+    }
+
+    /**
+     * Описывает все поля элемента строкой. Хранилища по столбцам и вне кучи
+     * возвращают при чтении новые объекты, поэтому элементы сравниваются по полям.
+     *
+     * @param person Элемент или null
+     * @return Строка со значениями полей или null
+     */
+    public static String describe(Person person) {
+        if (person == null) return null;
+        return String.join("|", person.getName(), "" + person.getCoordinates().getX(), "" + person.getCoordinates().getY(),
+            "" + person.getCreationDate(), "" + person.getHeight(), "" + person.getBirthday(), "" + person.getEyeColor(),
+            "" + person.getHairColor(), person.getLocation() == null ? "-" : person.getLocation().getX() + ","
+            + person.getLocation().getY() + "," + person.getLocation().getZ() + "," + person.getLocation().getName());
+    }
+
+    /**
+     * Коллекция для проверки индекса: изменения применяются одновременно к HashMap,
+     * к {@link IntPersonMap} и к проверяемому слушателю, как это делает CollectionManager.
+     */
+    public static class Mirror {
+        private final HashMap<Integer, Person> expected = new HashMap<>();
+        private final IntPersonMap map = new IntPersonMap();
+        private final ListenerInterface listener;
+
+        /**
+         * Создает пустую коллекцию и очищает слушатель.
+         *
+         * @param listener Проверяемый слушатель
+         */
+        public Mirror(ListenerInterface listener) {
+            this.listener = listener;
+            listener.onClear();
+        }
+
+        /**
+         * Добавляет или заменяет элемент.
+         *
+         * @param key Ключ
+         * @param person Элемент
+         */
+        public void put(int key, Person person) {
+            Person old = expected.put(key, person);
+            map.put(key, person);
+            listener.onPut(key, old, person);
+        }
+
+        /**
+         * Удаляет элемент, если он есть.
+         *
+         * @param key Ключ
+         */
+        public void remove(int key) {
+            Person old = expected.remove(key);
+            map.remove(key);
+            listener.onRemove(key, old);
+        }
+
+        /**
+         * Сообщает слушателю, что коллекция заменена целиком.
+         */
+        public void reload() {
+            listener.onLoad(map);
+        }
+
+        /**
+         * Возвращает коллекцию, по которой индекс строится заново.
+         *
+         * @return Коллекция
+         */
+        public PersonMap getMap() {
+            return map;
+        }
+
+        /**
+         * Возвращает ожидаемые элементы.
+         *
+         * @return Элементы по ключам
+         */
+        public Map<Integer, Person> getExpected() {
+            return expected;
+        }
+    }
+}
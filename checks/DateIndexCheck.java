@@ -0,0 +1,99 @@
+package checks;
+
+import static checks.Checks.expect;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import collection.Coordinates;
+import collection.Person;
+import collectionManager.DateIndex;
+
+/**
+ * Случайная проверка {@link DateIndex}: выборка по промежутку дней рождения,
+ * выборка по дате создания и количество элементов без дня рождения сравниваются
+ * с полным перебором. Даты берутся из узкого промежутка, из широкого и совпадающие,
+ * чтобы порядок при равных значениях определялся ключами.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class DateIndexCheck {
+    private static final Random random = new Random(11);
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 4, 10, 12, 0);
+    private static final LocalDate FIRST_BIRTHDAY = LocalDate.of(1990, 1, 1);
+
+    /**
+     * Запускает проверку.
+     *
+     * @param args не используются
+     */
+    public static void main(String[] args) {
+        DateIndex index = new DateIndex();
+        for (int round = 0; round < 60; round++) {
+            int mode = round % 3;
+            Checks.Mirror mirror = new Checks.Mirror(index);
+            int ops = 100 + random.nextInt(20000);
+            for (int op = 0; op < ops; op++) {
+                int key = random.nextInt(ops) - ops / 3;
+                if (random.nextInt(3) > 0) mirror.put(key, person(mode));
+                else mirror.remove(key);
+                if (op == ops / 2 && round % 2 == 0) mirror.reload();
+                if (op % 211 == 0) check(index, mirror);
+            }
+            check(index, mirror);
+        }
+        System.out.println("DateIndexCheck: ok");
+    }
+
+    private static void check(DateIndex index, Checks.Mirror mirror) {
+        LocalDate from = FIRST_BIRTHDAY.plusDays(random.nextInt(20000) - 100);
+        LocalDate to = random.nextInt(5) == 0 ? from : from.plusDays(random.nextInt(3000));
+        index.prepare(mirror.getMap());
+        ArrayList<long[]> born = new ArrayList<>();
+        int withoutBirthday = 0;
+        for (Map.Entry<Integer, Person> entry : mirror.getExpected().entrySet()) {
+            LocalDate birthday = entry.getValue().getBirthday();
+            if (birthday == null) withoutBirthday++;
+            else if (!birthday.isBefore(from) && !birthday.isAfter(to)) born.add(new long[] {birthday.toEpochDay(), entry.getKey()});
+        }
+        expect(Arrays.equals(index.bornBetween(from, to), sortedKeys(born)), "bornBetween " + from + " " + to);
+        expect(index.getWithoutBirthday() == withoutBirthday, "withoutBirthday");
+
+        LocalDateTime since = random.nextInt(4) == 0 ? BASE : BASE.plusNanos((long) random.nextInt(1_000_000) * 1_000_000L - 1000);
+        ArrayList<long[]> created = new ArrayList<>();
+        for (Map.Entry<Integer, Person> entry : mirror.getExpected().entrySet()) {
+            long millis = toMillis(entry.getValue().getCreationDate());
+            if (millis >= toMillis(since)) created.add(new long[] {millis, entry.getKey()});
+        }
+        expect(Arrays.equals(index.createdSince(since), sortedKeys(created)), "createdSince " + since);
+    }
+
+    /**
+     * Сортирует пары (значение, ключ) и возвращает ключи в полученном порядке.
+     */
+    private static int[] sortedKeys(ArrayList<long[]> pairs) {
+        pairs.sort((first, second) -> first[0] != second[0] ? Long.compare(first[0], second[0]) : Long.compare(first[1], second[1]));
+        int[] keys = new int[pairs.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (int) pairs.get(i)[1];
+        }
+        return keys;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1000 + dateTime.getNano() / 1_000_000;
+    }
+
+    private static Person person(int mode) {
+        LocalDate birthday = random.nextInt(5) == 0 ? null : FIRST_BIRTHDAY.plusDays(random.nextInt(mode == 0 ? 30 : 20000));
+        LocalDateTime created = mode == 2 ? BASE : BASE.plusNanos((long) random.nextInt(mode == 0 ? 5 : 1_000_000) * 1_000_000L);
+        return new Person("a", new Coordinates(1f, 1L), created, 1, birthday, null, null, null);
+    }
+}
@@ -0,0 +1,121 @@
+package checks;
+
+import static checks.Checks.expect;
+import static checks.Checks.toArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import collection.Coordinates;
+import collection.Person;
+import collectionManager.CoordinateGrid;
+
+/**
+ * Случайная проверка {@link CoordinateGrid}: поиск ближайших элементов и элементов
+ * в прямоугольнике сравниваются с полным перебором. Координаты равномерные,
+ * сгущенные около точки, совпадающие и очень разбросанные, с NaN и бесконечностями,
+ * чтобы сетка перестраивалась и работала с вырожденными ячейками.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class GridCheck {
+    private static final Random random = new Random(3);
+
+    /**
+     * Запускает проверку.
+     *
+     * @param args не используются
+     */
+    public static void main(String[] args) {
+        CoordinateGrid grid = new CoordinateGrid();
+        for (int round = 0; round < 60; round++) {
+            int mode = round % 4;
+            Checks.Mirror mirror = new Checks.Mirror(grid);
+            int ops = 200 + random.nextInt(6000);
+            for (int op = 0; op < ops; op++) {
+                int key = random.nextInt(ops);
+                if (random.nextInt(4) > 0) mirror.put(key, person(x(mode), y(mode)));
+                else mirror.remove(key);
+                if (op == ops / 2 && round % 3 == 0) mirror.reload();
+                if (op % 97 == 0) check(grid, mirror, mode);
+            }
+            check(grid, mirror, mode);
+        }
+        System.out.println("GridCheck: ok");
+    }
+
+    private static void check(CoordinateGrid grid, Checks.Mirror mirror, int mode) {
+        double x = x(mode == 3 ? 0 : mode);
+        double y = y(mode == 3 ? 0 : mode);
+        if (mode == 3 && random.nextBoolean()) {
+            x = random.nextGaussian() * 1e7;
+            y = random.nextGaussian() * 1e12;
+        }
+        int k = 1 + random.nextInt(20);
+        grid.prepare(mirror.getMap());
+        int[] nearest = grid.nearest(x, y, k);
+        ArrayList<Double> distances = new ArrayList<>();
+        for (Person person : mirror.getExpected().values()) {
+            double distance = distance(person, x, y);
+            if (distance >= 0) distances.add(distance);
+        }
+        Collections.sort(distances);
+        ArrayList<Double> found = new ArrayList<>();
+        for (int key : nearest) {
+            found.add(distance(mirror.getExpected().get(key), x, y));
+        }
+        expect(found.equals(distances.subList(0, Math.min(k, distances.size()))), "nearest, mode " + mode);
+
+        double x2 = x + (mode == 3 ? random.nextGaussian() * 1e7 : random.nextInt(300) - 150);
+        double y2 = y + (mode == 3 ? random.nextGaussian() * 1e12 : random.nextInt(300) - 150);
+        TreeSet<Integer> inside = new TreeSet<>();
+        for (Map.Entry<Integer, Person> entry : mirror.getExpected().entrySet()) {
+            Coordinates coordinates = entry.getValue().getCoordinates();
+            if (coordinates.getX() >= Math.min(x, x2) && coordinates.getX() <= Math.max(x, x2)
+                    && coordinates.getY() >= Math.min(y, y2) && coordinates.getY() <= Math.max(y, y2)) {
+                inside.add(entry.getKey());
+            }
+        }
+        expect(Arrays.equals(grid.inArea(x, y, x2, y2), toArray(inside)), "inArea, mode " + mode);
+    }
+
+    /**
+     * Возвращает расстояние от элемента до точки; NaN для координаты NaN,
+     * такие элементы не могут быть ближайшими.
+     */
+    private static double distance(Person person, double x, double y) {
+        double dx = person.getCoordinates().getX() - x;
+        double dy = person.getCoordinates().getY() - y;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    private static Person person(float x, long y) {
+        return new Person("a", new Coordinates(x, y), 1);
+    }
+
+    private static float x(int mode) {
+        switch (mode) {
+            case 0: return random.nextFloat() * 1000;
+            case 1: return 500 + (float) random.nextGaussian();
+            case 2: return 7f;
+            default:
+                if (random.nextInt(50) == 0) return random.nextBoolean() ? Float.NaN : Float.POSITIVE_INFINITY;
+                return (float) (random.nextGaussian() * 1e7);
+        }
+    }
+
+    private static long y(int mode) {
+        switch (mode) {
+            case 0: return random.nextInt(1000);
+            case 1: return 500 + random.nextInt(3);
+            case 2: return -5;
+            default: return (long) (random.nextGaussian() * 1e12);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package checks;
+
+import static checks.Checks.expect;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import collection.Coordinates;
+import collection.Person;
+import collectionManager.HeightSketch;
+import collectionManager.HeightStats;
+
+/**
+ * Случайная проверка {@link HeightStats} и {@link HeightSketch}. Количество, сумма,
+ * наименьший и наибольший рост и гистограмма сравниваются с точными значениями
+ * по отсортированному массиву, процентили - с допустимой относительной погрешностью.
+ * Рост берется из узкого промежутка, из всего диапазона int, из распределения
+ * с длинным хвостом и одинаковый. Отдельно проверяется, что объединение двух
+ * распределений дает те же процентили, что одно распределение по всем значениям.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class HeightStatsCheck {
+    private static final Random random = new Random(13);
+
+    /**
+     * Запускает проверку.
+     *
+     * @param args не используются
+     */
+    public static void main(String[] args) {
+        HeightStats stats = new HeightStats();
+        for (int round = 0; round < 60; round++) {
+            int mode = round % 4;
+            Checks.Mirror mirror = new Checks.Mirror(stats);
+            int ops = 50 + random.nextInt(20000);
+            for (int op = 0; op < ops; op++) {
+                int key = random.nextInt(ops);
+                if (random.nextInt(3) > 0) mirror.put(key, person(height(mode)));
+                else mirror.remove(key);
+                if (op == ops / 2 && round % 2 == 0) mirror.reload();
+                if (op % 301 == 0) check(stats, mirror);
+            }
+            check(stats, mirror);
+        }
+        checkMerge();
+        System.out.println("HeightStatsCheck: ok");
+    }
+
+    private static void check(HeightStats stats, Checks.Mirror mirror) {
+        int[] heights = mirror.getExpected().values().stream().mapToInt(Person::getHeight).sorted().toArray();
+        stats.prepare(mirror.getMap());
+        expect(stats.getCount() == heights.length, "count");
+        long sum = 0;
+        for (int height : heights) {
+            sum += height;
+        }
+        expect(stats.getSum() == sum, "sum");
+        if (heights.length == 0) {
+            expect(stats.histogram(10).length == 0, "empty histogram");
+            return;
+        }
+        expect(stats.getMin() == heights[0] && stats.getMax() == heights[heights.length - 1], "min and max");
+        for (double q : new double[] {0.001, 0.25, 0.5, 0.75, 0.9, 0.99, 1}) {
+            int exact = heights[Math.max(0, (int) Math.ceil(q * heights.length) - 1)];
+            double estimate = stats.quantile(q);
+            expect(Math.abs(estimate - exact) <= exact * HeightSketch.RELATIVE_ACCURACY * 1.00001,
+                "quantile " + q + ": exact " + exact + ", estimate " + estimate);
+        }
+        int bins = 1 + random.nextInt(20);
+        int[] histogram = stats.histogram(bins);
+        long width = HeightStats.binWidth(heights[0], heights[heights.length - 1], bins);
+        int[] expected = new int[histogram.length];
+        for (int height : heights) {
+            expected[(int) ((height - (long) heights[0]) / width)]++;
+        }
+        expect(histogram.length <= bins && Arrays.equals(histogram, expected), "histogram with " + bins + " bins");
+    }
+
+    /**
+     * Раскладывает значения по двум распределениям и проверяет, что после объединения
+     * счетчики и процентили совпадают с распределением, собранным по всем значениям сразу.
+     */
+    private static void checkMerge() {
+        for (int mode = 0; mode < 4; mode++) {
+            HeightSketch first = new HeightSketch();
+            HeightSketch second = new HeightSketch();
+            HeightSketch all = new HeightSketch();
+            int count = random.nextInt(100_000);
+            for (int i = 0; i < count; i++) {
+                int height = height(mode);
+                (random.nextBoolean() ? first : second).add(height);
+                all.add(height);
+            }
+            first.merge(second);
+            expect(first.getCount() == all.getCount(), "merged count, mode " + mode);
+            for (int percent = 0; percent <= 100; percent++) {
+                double q = percent / 100.0;
+                expect(Double.compare(first.quantile(q), all.quantile(q)) == 0, "merged quantile " + q + ", mode " + mode);
+            }
+        }
+    }
+
+    private static int height(int mode) {
+        switch (mode) {
+            case 0: return 150 + random.nextInt(50);
+            case 1: return 1 + random.nextInt(Integer.MAX_VALUE);
+            case 2: return 1 + (int) Math.abs(random.nextGaussian() * 1000);
+            default: return 170;
+        }
+    }
+
+    private static Person person(int height) {
+        return new Person("a", new Coordinates(1f, 1L), LocalDateTime.now(), height, null, null, null, null);
+    }
+}
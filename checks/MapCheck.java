@@ -0,0 +1,240 @@
+package checks;
+
+import static checks.Checks.describe;
+import static checks.Checks.expect;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import collection.ColorEye;
+import collection.ColorHair;
+import collection.Coordinates;
+import collection.Location;
+import collection.Person;
+import collectionManager.ColumnarPersonMap;
+import collectionManager.IntPersonMap;
+import collectionManager.OffHeapPersonMap;
+import collectionManager.PersonMap;
+import fileManager.BinaryWriter;
+import fileManager.MappedPersonMap;
+
+/**
+ * Случайная проверка хранилищ коллекции: {@link IntPersonMap} (открытая адресация
+ * с удалением сдвигом назад), {@link ColumnarPersonMap} и {@link OffHeapPersonMap}.
+ * Каждое хранилище сравнивается с HashMap после каждой операции; проверяются
+ * удаление через курсор во время обхода и независимость копии.
+ * Отдельно хранилище вне кучи получает длинную серию замен с именами разной длины,
+ * чтобы область строк много раз уплотнялась, а снимок, отображенный в память
+ * участками по 4 КБ, сравнивается с {@link IntPersonMap}, из которой он записан.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class MapCheck {
+    private static final Random random = new Random(7);
+
+    /**
+     * Размер участка отображения, чтобы небольшой снимок занимал много участков.
+     */
+    private static final int SEGMENT_SIZE = 4096;
+
+    /**
+     * Запускает проверку.
+     *
+     * @param args не используются
+     */
+    public static void main(String[] args) {
+        System.setProperty("lab5.mmap.segment", String.valueOf(SEGMENT_SIZE));
+        Person[] people = samples();
+        for (int round = 0; round < 300; round++) {
+            int engine = round % 3;
+            int expectedSize = random.nextInt(50);
+            PersonMap map = engine == 0 ? new IntPersonMap(expectedSize)
+                : engine == 1 ? new ColumnarPersonMap(expectedSize) : new OffHeapPersonMap(expectedSize);
+            checkOperations(map, people);
+        }
+        checkStringArena();
+        checkMappedSegments();
+        System.out.println("MapCheck: ok");
+    }
+
+    /**
+     * Выполняет случайные операции над хранилищем и над HashMap и сравнивает результаты.
+     * Ключи берутся из небольшого диапазона и его отрицательных кратных, чтобы цепочки
+     * открытой адресации часто пересекались и удаление сдвигало элементы.
+     */
+    private static void checkOperations(PersonMap map, Person[] people) {
+        HashMap<Integer, Person> expected = new HashMap<>();
+        int range = 20 + random.nextInt(3000);
+        for (int op = 0; op < 5000; op++) {
+            int key = random.nextInt(range) * (random.nextBoolean() ? 1 : -7919);
+            int choice = random.nextInt(10);
+            if (choice < 5) {
+                Person person = people[random.nextInt(people.length)];
+                expect(same(map.put(key, person), expected.put(key, person)), "put " + key);
+            }
+            else if (choice < 8) {
+                expect(same(map.remove(key), expected.remove(key)), "remove " + key);
+            }
+            else if (choice == 8) {
+                Person person = people[random.nextInt(people.length)];
+                Person current = expected.get(key);
+                Person replaced = current != null && person.compareTo(current) > 0 ? current : null;
+                if (replaced != null) expected.put(key, person);
+                expect(same(map.replaceIfGreater(key, person), replaced), "replaceIfGreater " + key);
+            }
+            else {
+                expect(same(map.get(key), expected.get(key)), "get " + key);
+                expect(map.containsKey(key) == expected.containsKey(key), "containsKey " + key);
+            }
+            expect(map.size() == expected.size(), "size");
+        }
+
+        HashMap<Integer, Person> seen = new HashMap<>();
+        PersonMap.Cursor cursor = map.cursor();
+        while (cursor.hasNext()) {
+            int key = cursor.nextKey();
+            expect(seen.put(key, cursor.value()) == null, "cursor returned key twice: " + key);
+            expect(same(cursor.value(), expected.get(key)), "cursor value " + key);
+            if (random.nextInt(3) == 0) {
+                cursor.remove();
+                expected.remove(key);
+            }
+        }
+        for (Integer key : expected.keySet()) {
+            expect(seen.containsKey(key), "cursor missed key " + key);
+        }
+        expect(equal(map, expected), "content after cursor removal");
+
+        PersonMap copy = map.copy();
+        copy.put(123456789, people[0]);
+        copy.remove(expected.isEmpty() ? 0 : expected.keySet().iterator().next());
+        expect(equal(map, expected), "copy changed the original");
+    }
+
+    /**
+     * Заменяет элементы хранилища вне кучи именами и названиями локаций разной длины,
+     * так что старые строки становятся мусором и область строк уплотняется.
+     */
+    private static void checkStringArena() {
+        OffHeapPersonMap map = new OffHeapPersonMap();
+        HashMap<Integer, Person> expected = new HashMap<>();
+        for (int op = 0; op < 500_000; op++) {
+            int key = random.nextInt(20_000);
+            if (random.nextInt(10) < 7) {
+                Person person = randomPerson();
+                map.put(key, person);
+                expected.put(key, person);
+            }
+            else {
+                map.remove(key);
+                expected.remove(key);
+            }
+            if (op % 100_000 == 0) expect(equal(map.copy(), expected), "off-heap copy at " + op);
+        }
+        expect(equal(map, expected), "off-heap content");
+        ArrayList<Integer> keys = new ArrayList<>(expected.keySet());
+        for (int key : keys) {
+            if ((key & 1) == 0) {
+                map.remove(key);
+                expected.remove(key);
+            }
+        }
+        expect(equal(map, expected), "off-heap content after removals");
+        map.clear();
+        expect(map.size() == 0 && map.get(keys.isEmpty() ? 0 : keys.get(0)) == null, "off-heap clear");
+    }
+
+    /**
+     * Записывает снимки разного размера, отображает их в память маленькими участками
+     * и сравнивает с исходной коллекцией: на каждой границе участка не должна теряться запись.
+     */
+    private static void checkMappedSegments() {
+        try {
+            Path file = Files.createTempFile("mapcheck", ".bin");
+            try {
+                for (int round = 0; round < 40; round++) {
+                    IntPersonMap source = new IntPersonMap();
+                    int count = round == 0 ? 0 : round < 20 ? random.nextInt(50) : 1000 + random.nextInt(2000);
+                    for (int i = 0; i < count; i++) {
+                        source.put(random.nextInt(), randomPerson());
+                    }
+                    new BinaryWriter().writeMapToBinary(source, file.toString());
+                    expect(round < 20 || Files.size(file) > 4L * SEGMENT_SIZE, "snapshot spans several segments");
+                    MappedPersonMap mapped = MappedPersonMap.open(file.toString());
+                    expect(mapped.size() == source.size(), "mapped size " + mapped.size() + ", expected " + source.size());
+                    PersonMap.Cursor cursor = source.cursor();
+                    while (cursor.hasNext()) {
+                        int key = cursor.nextKey();
+                        expect(mapped.containsKey(key) && same(mapped.get(key), cursor.value()), "mapped record " + key);
+                    }
+                    int seen = 0;
+                    PersonMap.Cursor mappedCursor = mapped.cursor();
+                    while (mappedCursor.hasNext()) {
+                        int key = mappedCursor.nextKey();
+                        expect(same(mappedCursor.value(), source.get(key)), "mapped cursor " + key);
+                        seen++;
+                    }
+                    expect(seen == source.size(), "mapped cursor count");
+                }
+            }
+            finally {
+                Files.deleteIfExists(file);
+            }
+        }
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static Person randomPerson() {
+        StringBuilder name = new StringBuilder();
+        int length = 1 + random.nextInt(random.nextInt(10) == 0 ? 200 : 12);
+        for (int i = 0; i < length; i++) {
+            name.append((char) ('a' + random.nextInt(26)));
+        }
+        Person person = new Person(name.toString(), new Coordinates(random.nextFloat() * 100, (long) random.nextInt(1000)),
+            1 + random.nextInt(250));
+        if (random.nextBoolean()) {
+            person.setLocation(new Location((long) random.nextInt(100), random.nextFloat(), random.nextInt(100),
+                name.reverse().toString()));
+        }
+        return person;
+    }
+
+    private static Person[] samples() {
+        Person[] people = new Person[50];
+        for (int i = 0; i < people.length; i++) {
+            people[i] = new Person("p" + i, new Coordinates(1f + i, 2L * i), i + 1);
+            if (i % 2 == 0) {
+                people[i].setEyeColor(ColorEye.values()[i % ColorEye.values().length]);
+                people[i].setLocation(new Location((long) i, 1.5f, i, "l" + i));
+                people[i].setBirthday(LocalDate.of(2000, 1, 1 + i % 28));
+            }
+            if (i % 3 == 0) people[i].setHairColor(ColorHair.values()[i % ColorHair.values().length]);
+        }
+        return people;
+    }
+
+    private static boolean same(Person first, Person second) {
+        String a = describe(first);
+        String b = describe(second);
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static boolean equal(PersonMap map, Map<Integer, Person> expected) {
+        if (map.size() != expected.size()) return false;
+        for (Map.Entry<Integer, Person> entry : expected.entrySet()) {
+            if (!same(map.get((int) entry.getKey()), entry.getValue())) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,100 @@
+package checks;
+
+import static checks.Checks.expect;
+import static checks.Checks.toArray;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import collection.Coordinates;
+import collection.Person;
+import collectionManager.NameIndex;
+
+/**
+ * Случайная проверка {@link NameIndex} (сжатого префиксного дерева): поиск по имени
+ * и по началу имени сравнивается с полным перебором. Имена короткие и из маленького
+ * алфавита, чтобы ребра часто делились и сливались, а после серии вставок большая часть
+ * элементов удаляется, чтобы общий массив меток уплотнялся.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class NameIndexCheck {
+    private static final Random random = new Random(7);
+
+    /**
+     * Запускает проверку.
+     *
+     * @param args не используются
+     */
+    public static void main(String[] args) {
+        NameIndex index = new NameIndex();
+        for (int round = 0; round < 100; round++) {
+            int alphabet = new int[] {2, 3, 26, 52}[round % 4];
+            int maxLength = 1 + random.nextInt(8);
+            Checks.Mirror mirror = new Checks.Mirror(index);
+            int ops = 100 + random.nextInt(5000);
+            for (int op = 0; op < ops; op++) {
+                int key = random.nextInt(ops);
+                if (random.nextInt(3) > 0) mirror.put(key, person(name(alphabet, maxLength)));
+                else mirror.remove(key);
+                if (op == ops / 2 && round % 3 == 0) mirror.reload();
+                if (op % 37 == 0) check(index, mirror, alphabet, maxLength);
+            }
+            int removed = 0;
+            for (int key : new ArrayList<>(mirror.getExpected().keySet())) {
+                if (random.nextInt(10) == 0) continue;
+                mirror.remove(key);
+                if (++removed % 37 == 0) check(index, mirror, alphabet, maxLength);
+            }
+            check(index, mirror, alphabet, maxLength);
+        }
+        System.out.println("NameIndexCheck: ok");
+    }
+
+    private static void check(NameIndex index, Checks.Mirror mirror, int alphabet, int maxLength) {
+        String name = name(alphabet, maxLength);
+        if (random.nextInt(4) == 0 && !mirror.getExpected().isEmpty()) {
+            ArrayList<Person> people = new ArrayList<>(mirror.getExpected().values());
+            name = people.get(random.nextInt(people.size())).getName();
+        }
+        index.prepare(mirror.getMap());
+        TreeSet<Integer> sameName = new TreeSet<>();
+        for (Map.Entry<Integer, Person> entry : mirror.getExpected().entrySet()) {
+            if (entry.getValue().getName().equals(name)) sameName.add(entry.getKey());
+        }
+        expect(Arrays.equals(index.findName(name), toArray(sameName)), "findName " + name);
+
+        String prefix = name.substring(0, random.nextInt(name.length() + 1));
+        TreeMap<String, TreeSet<Integer>> byName = new TreeMap<>();
+        for (Map.Entry<Integer, Person> entry : mirror.getExpected().entrySet()) {
+            String value = entry.getValue().getName();
+            if (value.startsWith(prefix)) byName.computeIfAbsent(value, key -> new TreeSet<>()).add(entry.getKey());
+        }
+        ArrayList<Integer> expected = new ArrayList<>();
+        for (TreeSet<Integer> keys : byName.values()) {
+            expected.addAll(keys);
+        }
+        expect(Arrays.equals(index.findPrefix(prefix), toArray(expected)), "findPrefix " + prefix);
+    }
+
+    private static String name(int alphabet, int maxLength) {
+        int length = 1 + random.nextInt(maxLength);
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            char first = random.nextBoolean() && alphabet > 26 ? 'A' : 'a';
+            name.append((char) (first + random.nextInt(Math.min(alphabet, 26))));
+        }
+        return name.toString();
+    }
+
+    private static Person person(String name) {
+        return new Person(name, new Coordinates(1f, 1L), LocalDateTime.now(), 1, null, null, null, null);
+    }
+}
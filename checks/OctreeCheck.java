@@ -0,0 +1,129 @@
+package checks;
+
+import static checks.Checks.expect;
+import static checks.Checks.toArray;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import collection.Coordinates;
+import collection.Location;
+import collection.Person;
+import collectionManager.LocationOctree;
+
+/**
+ * Случайная проверка {@link LocationOctree}: поиск в параллелепипеде и в шаре
+ * и количество элементов без локации сравниваются с полным перебором.
+ * Локации равномерные, сгущенные, у самой границы диапазона long, очень разбросанные
+ * с NaN и бесконечностями и пропущенные; после серии вставок большая часть элементов
+ * удаляется, чтобы узлы снова сливались в листья.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class OctreeCheck {
+    private static final Random random = new Random(5);
+
+    /**
+     * Запускает проверку.
+     *
+     * @param args не используются
+     */
+    public static void main(String[] args) {
+        LocationOctree tree = new LocationOctree();
+        for (int round = 0; round < 80; round++) {
+            int mode = round % 5;
+            Checks.Mirror mirror = new Checks.Mirror(tree);
+            int ops = 200 + random.nextInt(8000);
+            for (int op = 0; op < ops; op++) {
+                int key = random.nextInt(ops);
+                if (random.nextInt(3) > 0) mirror.put(key, person(location(mode)));
+                else mirror.remove(key);
+                if (op == ops / 2 && round % 3 == 0) mirror.reload();
+                if (op % 97 == 0) check(tree, mirror, mode);
+            }
+            for (int key : new ArrayList<>(mirror.getExpected().keySet())) {
+                if (random.nextInt(10) > 0) mirror.remove(key);
+            }
+            check(tree, mirror, mode);
+        }
+        System.out.println("OctreeCheck: ok");
+    }
+
+    private static void check(LocationOctree tree, Checks.Mirror mirror, int mode) {
+        Location center = location(mode == 3 || mode == 4 ? 0 : mode);
+        if (mode == 3) {
+            center = new Location((long) (random.nextGaussian() * 1e15), (float) (random.nextGaussian() * 1e30), random.nextInt(), "c");
+        }
+        double x = center.getX();
+        double y = center.getY();
+        double z = center.getZ();
+        double sx = mode == 3 ? Math.abs(random.nextGaussian() * 1e15) : random.nextInt(300);
+        double sy = mode == 3 ? Math.abs(random.nextGaussian() * 1e30) : random.nextInt(300);
+        double sz = mode == 3 ? (random.nextBoolean() ? Double.POSITIVE_INFINITY : 1e9) : random.nextInt(300);
+        if (mode == 3 && random.nextInt(5) == 0) sy = Double.POSITIVE_INFINITY;
+        double x2 = x + (random.nextBoolean() ? sx : -sx);
+        double y2 = y + (random.nextBoolean() ? sy : -sy);
+        double z2 = z + (random.nextBoolean() ? sz : -sz);
+
+        tree.prepare(mirror.getMap());
+        TreeSet<Integer> inBox = new TreeSet<>();
+        int withoutLocation = 0;
+        for (Map.Entry<Integer, Person> entry : mirror.getExpected().entrySet()) {
+            Location location = entry.getValue().getLocation();
+            if (location == null) {
+                withoutLocation++;
+                continue;
+            }
+            if (between(location.getX(), x, x2) && between(location.getY(), y, y2) && between(location.getZ(), z, z2)) {
+                inBox.add(entry.getKey());
+            }
+        }
+        expect(Arrays.equals(tree.inBox(x, y, z, x2, y2, z2), toArray(inBox)), "inBox, mode " + mode);
+        expect(tree.getWithoutLocation() == withoutLocation, "withoutLocation, mode " + mode);
+
+        double radius = mode == 3 ? Math.abs(random.nextGaussian() * 1e15) : random.nextInt(200);
+        TreeSet<Integer> inRadius = new TreeSet<>();
+        for (Map.Entry<Integer, Person> entry : mirror.getExpected().entrySet()) {
+            Location location = entry.getValue().getLocation();
+            if (location == null) continue;
+            double dx = location.getX() - x;
+            double dy = location.getY() - y;
+            double dz = location.getZ() - z;
+            if (dx * dx + dy * dy + dz * dz <= radius * radius) inRadius.add(entry.getKey());
+        }
+        expect(Arrays.equals(tree.inRadius(x, y, z, radius), toArray(inRadius)), "inRadius, mode " + mode);
+    }
+
+    private static boolean between(double value, double bound1, double bound2) {
+        return value >= Math.min(bound1, bound2) && value <= Math.max(bound1, bound2);
+    }
+
+    private static Person person(Location location) {
+        return new Person("a", new Coordinates(1f, 1L), LocalDateTime.now(), 1, null, null, null, location);
+    }
+
+    private static Location location(int mode) {
+        switch (mode) {
+            case 0:
+                return new Location((long) random.nextInt(1000), random.nextFloat() * 1000, random.nextInt(1000), "l");
+            case 1:
+                return new Location(500L + random.nextInt(3), 500 + (float) random.nextGaussian(), 7, "l");
+            case 2:
+                return new Location(4_000_000_000_000_000_000L + random.nextInt(4), 7f, 1, "l");
+            case 3:
+                if (random.nextInt(10) == 0) return null;
+                float y = random.nextInt(40) == 0 ? (random.nextBoolean() ? Float.NaN : Float.NEGATIVE_INFINITY)
+                    : (float) (random.nextGaussian() * 1e30);
+                return new Location((long) (random.nextGaussian() * 1e15), y, random.nextInt(), "l");
+            default:
+                if (random.nextBoolean()) return null;
+                return new Location((long) random.nextInt(100), (float) random.nextInt(100), random.nextInt(100), "l");
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package checks;
+
+import static checks.Checks.expect;
+import static checks.Checks.toArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import collectionManager.SortedKeySet;
+
+/**
+ * Случайная проверка {@link SortedKeySet}: добавление, удаление, удаление диапазонов
+ * ключей меньше и больше заданного и обход сравниваются с TreeSet. Копия, снятая
+ * посреди серии операций, не должна меняться вместе с исходным множеством.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class SortedKeySetCheck {
+    private static final Random random = new Random(5);
+
+    /**
+     * Запускает проверку.
+     *
+     * @param args не используются
+     */
+    public static void main(String[] args) {
+        for (int round = 0; round < 200; round++) {
+            SortedKeySet set = new SortedKeySet();
+            TreeSet<Integer> expected = new TreeSet<>();
+            int[] initial = random.ints(random.nextInt(5000), -3000, 3000).distinct().toArray();
+            set.rebuild(initial.clone());
+            for (int key : initial) {
+                expected.add(key);
+            }
+            SortedKeySet copy = null;
+            TreeSet<Integer> copied = null;
+            for (int op = 0; op < 3000; op++) {
+                if (op == 1500) {
+                    copy = set.copy();
+                    copied = new TreeSet<>(expected);
+                }
+                int key = random.nextInt(6000) - 3000;
+                int choice = random.nextInt(100);
+                if (choice < 45) {
+                    expect(set.add(key) == expected.add(key), "add " + key);
+                }
+                else if (choice < 90) {
+                    expect(set.remove(key) == expected.remove(key), "remove " + key);
+                }
+                else if (choice < 95) {
+                    int[] removed = set.removeLower(key);
+                    ArrayList<Integer> lower = new ArrayList<>(expected.headSet(key, false));
+                    expected.headSet(key, false).clear();
+                    expect(Arrays.equals(removed, toArray(lower)), "removeLower " + key);
+                }
+                else {
+                    int[] removed = set.removeGreater(key);
+                    ArrayList<Integer> greater = new ArrayList<>(expected.tailSet(key, false));
+                    expected.tailSet(key, false).clear();
+                    expect(Arrays.equals(removed, toArray(greater)), "removeGreater " + key);
+                }
+                expect(set.size() == expected.size(), "size");
+                expect(set.contains(key) == expected.contains(key), "contains " + key);
+            }
+            check(set, expected);
+            check(copy, copied);
+        }
+        System.out.println("SortedKeySetCheck: ok");
+    }
+
+    private static void check(SortedKeySet set, TreeSet<Integer> expected) {
+        expect(set.size() == expected.size(), "size");
+        expect(set.first() == (expected.isEmpty() ? Integer.MAX_VALUE : expected.first()), "first");
+        expect(set.last() == (expected.isEmpty() ? Integer.MIN_VALUE : expected.last()), "last");
+        PrimitiveIterator.OfInt iterator = set.iterator();
+        for (int key : expected) {
+            expect(iterator.hasNext() && iterator.nextInt() == key, "iterator order");
+        }
+        expect(!iterator.hasNext(), "iterator end");
+    }
+}
@@ -0,0 +1,106 @@
+package checks;
+
+import static checks.Checks.expect;
+import static checks.Checks.toArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+import collectionManager.SortedLongIndex;
+
+/**
+ * Случайная проверка {@link SortedLongIndex}. Построение сравнивается с сортировкой
+ * пар (значение, ключ): узкий разброс значений проверяет упакованную сортировку,
+ * широкий - сортировку слиянием, значения около Long.MAX_VALUE / 2 - сдвиг упаковки.
+ * Затем добавление, удаление и выборка диапазона сравниваются с TreeSet пар.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class SortedLongIndexCheck {
+    private static final Random random = new Random(2);
+
+    /**
+     * Запускает проверку.
+     *
+     * @param args не используются
+     */
+    public static void main(String[] args) {
+        for (int round = 0; round < 200; round++) {
+            int count = random.nextInt(3000);
+            long[] values = new long[count];
+            int[] keys = new int[count];
+            TreeSet<long[]> expected = new TreeSet<>(SortedLongIndexCheck::compare);
+            int[] distinct = random.ints(count * 2 + 1).distinct().limit(count).toArray();
+            count = distinct.length;
+            for (int i = 0; i < count; i++) {
+                values[i] = value(round);
+                keys[i] = distinct[i];
+                expected.add(new long[] {values[i], keys[i]});
+            }
+            SortedLongIndex index = new SortedLongIndex();
+            index.rebuild(values, keys, count);
+            expect(Arrays.equals(index.range(Long.MIN_VALUE, Long.MAX_VALUE), keysOf(expected)), "rebuild, round " + round);
+            int i = 0;
+            for (long[] pair : expected) {
+                expect(values[i] == pair[0] && keys[i] == pair[1], "sorted arrays, round " + round);
+                i++;
+            }
+
+            for (int op = 0; op < 2000; op++) {
+                long value = count > 0 && random.nextBoolean() ? values[random.nextInt(count)] : value(round);
+                int key = random.nextInt(4) == 0 && count > 0 ? keys[random.nextInt(count)] : random.nextInt();
+                long[] pair = {value, key};
+                if (random.nextBoolean()) expect(index.add(value, key) == expected.add(pair), "add");
+                else expect(index.remove(value, key) == expected.remove(pair), "remove");
+                expect(index.size() == expected.size(), "size");
+                if (op % 50 == 0) check(index, expected, round);
+            }
+            check(index, expected, round);
+        }
+        System.out.println("SortedLongIndexCheck: ok");
+    }
+
+    private static void check(SortedLongIndex index, TreeSet<long[]> expected, int round) {
+        if (expected.isEmpty()) {
+            expect(index.range(Long.MIN_VALUE, Long.MAX_VALUE).length == 0, "empty range");
+            return;
+        }
+        ArrayList<long[]> pairs = new ArrayList<>(expected);
+        for (int q = 0; q < 10; q++) {
+            long from = pairs.get(random.nextInt(pairs.size()))[0] + random.nextInt(3) - 1;
+            long to = pairs.get(random.nextInt(pairs.size()))[0] + random.nextInt(3) - 1;
+            ArrayList<Integer> inRange = new ArrayList<>();
+            for (long[] pair : pairs) {
+                if (pair[0] >= from && pair[0] <= to) inRange.add((int) pair[1]);
+            }
+            expect(Arrays.equals(index.range(from, to), toArray(inRange)), "range, round " + round);
+        }
+    }
+
+    private static long value(int round) {
+        switch (round % 4) {
+            case 0: return random.nextLong() >> random.nextInt(40);
+            case 1: return random.nextInt(50) - 25 + Long.MAX_VALUE / 2;
+            case 2: return random.nextInt(50) - 25;
+            default: return random.nextInt(Integer.MAX_VALUE) * 2L;
+        }
+    }
+
+    private static int[] keysOf(TreeSet<long[]> pairs) {
+        int[] keys = new int[pairs.size()];
+        int i = 0;
+        for (long[] pair : pairs) {
+            keys[i++] = (int) pair[1];
+        }
+        return keys;
+    }
+
+    private static int compare(long[] first, long[] second) {
+        int compare = Long.compare(first[0], second[0]);
+        return compare != 0 ? compare : Long.compare(first[1], second[1]);
+    }
+}
@@ -224,7 +224,7 @@ public class Person implements Comparable<Person> {
     @Override
     public String toString() {
         String s = "name = " + name + "; coordinates = " + coordinates.toString() + "; creationDate = " + creationDate.toString()
-                + "; height = " + height + "; birthday = " + birthday.toString() + "; eyeColor = " + eyeColor + "; hairColor = "
+                + "; height = " + height + "; birthday = " + birthday + "; eyeColor = " + eyeColor + "; hairColor = "
                 + hairColor + "; location = ";
         if (location == null) return s + "null";
         else return s + location.toString();
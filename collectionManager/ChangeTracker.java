@@ -0,0 +1,124 @@
+package collectionManager;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import collection.Person;
+
+/**
+ * Класс для учета изменений коллекции с момента последнего сохранения.
+ * Хранит ключи измененных и удаленных элементов, чтобы при сохранении
+ * можно было записать только изменения, а не всю коллекцию.
+ * 
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class ChangeTracker implements ListenerInterface {
+    private Set<Integer> dirtyKeys = new HashSet<>();
+    private Set<Integer> deletedKeys = new HashSet<>();
+    private boolean cleared = false;
+
+    /**
+     * Возвращает ключи элементов, добавленных или измененных с момента последнего сохранения.
+     * 
+     * @return Множество ключей
+     */
+    public Set<Integer> getDirtyKeys() {
+        return dirtyKeys;
+    }
+
+    /**
+     * Возвращает ключи элементов, удаленных с момента последнего сохранения.
+     * 
+     * @return Множество ключей
+     */
+    public Set<Integer> getDeletedKeys() {
+        return deletedKeys;
+    }
+
+    /**
+     * Проверяет, очищалась ли коллекция с момента последнего сохранения.
+     * 
+     * @return true если коллекция очищалась
+     */
+    public boolean isCleared() {
+        return cleared;
+    }
+
+    /**
+     * Возвращает количество записей, необходимых для сохранения изменений.
+     * 
+     * @return Количество измененных и удаленных ключей
+     */
+    public int size() {
+        return dirtyKeys.size() + deletedKeys.size();
+    }
+
+    /**
+     * Забирает накопленные изменения: возвращает их в новом объекте
+     * и начинает учет заново.
+     * 
+     * @return Объект с изменениями, накопленными до вызова
+     */
+    public ChangeTracker take() {
+        ChangeTracker taken = new ChangeTracker();
+        taken.dirtyKeys = dirtyKeys;
+        taken.deletedKeys = deletedKeys;
+        taken.cleared = cleared;
+        dirtyKeys = new HashSet<>();
+        deletedKeys = new HashSet<>();
+        cleared = false;
+        return taken;
+    }
+
+    /**
+     * Возвращает в учет изменения, забранные через {@link #take()},
+     * если их не удалось сохранить. Более поздние изменения имеют приоритет.
+     * 
+     * @param taken Ранее забранные изменения
+     */
+    public void restore(ChangeTracker taken) {
+        if (cleared) return;
+        for (Integer key : taken.dirtyKeys) {
+            if (!deletedKeys.contains(key)) dirtyKeys.add(key);
+        }
+        for (Integer key : taken.deletedKeys) {
+            if (!dirtyKeys.contains(key)) deletedKeys.add(key);
+        }
+        cleared = taken.cleared;
+    }
+
+    /**
+     * Сбрасывает учет изменений после сохранения коллекции.
+     */
+    public void reset() {
+        dirtyKeys.clear();
+        deletedKeys.clear();
+        cleared = false;
+    }
+
+    @Override
+    public void onPut(int key, Person oldElement, Person newElement) {
+        dirtyKeys.add(key);
+        deletedKeys.remove(key);
+    }
+
+    @Override
+    public void onRemove(int key, Person oldElement) {
+        dirtyKeys.remove(key);
+        deletedKeys.add(key);
+    }
+
+    @Override
+    public void onClear() {
+        reset();
+        cleared = true;
+    }
+
+    @Override
+    public void onLoad(Map<Integer, Person> map) {
+        reset();
+    }
+}
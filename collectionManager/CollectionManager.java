@@ -3,17 +3,33 @@ package collectionManager;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PrimitiveIterator;
 import java.util.Map.Entry;
-import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import collection.*;
 
 /**
  * Класс для управления коллекцией людей.
  * Предоставляет функционал для добавления, обновления, удаления и сортировки элементов.
  * Реализует паттерн Singleton для обеспечения единого экземпляра менеджера.
+ * Доступ к коллекции защищен блокировкой чтения-записи: команды, читающие коллекцию,
+ * выполняются параллельно, а изменения, в том числе удаление диапазона ключей,
+ * выполняются по одному и целиком, так что читатель не видит их частично.
+ * Для долгого чтения (вывод, сохранение) выдается снимок версии коллекции ({@link Snapshot}),
+ * который читается без блокировки. Снимок выдается без копирования: пока снимки версии
+ * открыты, первое изменение копирует карту и дальше меняется копия (копирование при записи).
+ * Рядом с картой поддерживается упорядоченное множество ключей, по которому
+ * выполняются удаление диапазона ключей и вывод коллекции в порядке ключей.
+ * Количество людей с каждым цветом волос и глаз ведет {@link ColorHistogram},
+ * поиск людей по координатам - пространственный индекс {@link CoordinateGrid},
+ * по локациям - октодерево {@link LocationOctree}, по имени и началу имени - {@link NameIndex},
+ * по дню рождения и дате создания - {@link DateIndex}; статистику роста ведет {@link HeightStats}.
+ * Запросы по этим индексам не просматривают коллекцию.
+ * Ключи новых элементов выдает {@link KeyAllocator} без блокировки и без повторов.
  * 
  * @author Ekaterina
  * @version 1.0
@@ -22,7 +38,30 @@ import collection.*;
 public class CollectionManager {
     private static CollectionManager collectMan = new CollectionManager();
     private String creationDate = LocalDate.now().toString();
-    private HashMap<Integer, Person> personMap = new HashMap<Integer, Person>();
+    private PersonMap personMap = StorageEngine.current().create(0);
+    private List<ListenerInterface> listeners = new ArrayList<>();
+    private ChangeTracker changes = new ChangeTracker();
+    private AtomicInteger readers = new AtomicInteger();
+    private long version = 0;
+    private SortedKeySet sortedKeys = new SortedKeySet();
+    private final KeyAllocator keyAllocator = new KeyAllocator();
+    private ColorHistogram colors = new ColorHistogram();
+    private CoordinateGrid grid = new CoordinateGrid();
+    private LocationOctree locations = new LocationOctree();
+    private NameIndex names = new NameIndex();
+    private DateIndex dates = new DateIndex();
+    private HeightStats heights = new HeightStats();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private CollectionManager() {
+        listeners.add(changes);
+        listeners.add(colors);
+        listeners.add(grid);
+        listeners.add(locations);
+        listeners.add(names);
+        listeners.add(dates);
+        listeners.add(heights);
+    }
 
     /**
      * Возвращает единственный экземпляр менеджера коллекции.
@@ -33,24 +72,212 @@ public class CollectionManager {
         return collectMan;
     }
 
+    /**
+     * Возвращает блокировку коллекции. Блокировка записи нужна, чтобы согласованно
+     * прочитать несколько частей состояния менеджера, например изменения и снимок при сохранении.
+     * 
+     * @return Блокировка чтения-записи коллекции
+     */
+    public ReentrantReadWriteLock getLock() {
+        return lock;
+    }
+
+    /**
+     * Возвращает учет изменений коллекции с момента последнего сохранения.
+     * 
+     * @return Объект ChangeTracker
+     */
+    public ChangeTracker getChanges() {
+        return changes;
+    }
+
+    /**
+     * Открывает снимок текущей версии коллекции.
+     * Снимок не копируется: пока он не закрыт, первое изменение коллекции
+     * создаст для менеджера новую копию карты. Снимок нужно закрыть после чтения.
+     * 
+     * @return Снимок текущей версии
+     */
+    public Snapshot openSnapshot() {
+        lock.readLock().lock();
+        try {
+            readers.incrementAndGet();
+            return new Snapshot(personMap, sortedKeys, version, readers);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает номер текущей версии коллекции.
+     * 
+     * @return Номер версии
+     */
+    public long getVersion() {
+        lock.readLock().lock();
+        try {
+            return version;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Копирует карту и упорядоченное множество ключей перед изменением,
+     * если у текущей версии есть открытые снимки.
+     * Новые снимки открываются под блокировкой чтения, поэтому под блокировкой записи
+     * счетчик снимков может только уменьшиться.
+     */
+    private void ensureWritable() {
+        if (readers.get() > 0) {
+            personMap = personMap.copy();
+            sortedKeys = sortedKeys.copy();
+            readers = new AtomicInteger();
+        }
+    }
+
+    /**
+     * Добавляет объект, которому сообщается о каждом изменении коллекции.
+     * 
+     * @param listener Объект, следящий за изменениями
+     */
+    public void addListener(ListenerInterface listener) {
+        lock.writeLock().lock();
+        try {
+            listeners.add(listener);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаляет объект из списка следящих за изменениями коллекции.
+     * 
+     * @param listener Объект, следящий за изменениями
+     */
+    public void removeListener(ListenerInterface listener) {
+        lock.writeLock().lock();
+        try {
+            listeners.remove(listener);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
     /**
      * Очищает коллекцию людей.
      */
     public void clearCollection() {
-        personMap.clear();
+        lock.writeLock().lock();
+        try {
+            if (readers.get() > 0) {
+                personMap = StorageEngine.current().create(0);
+                sortedKeys = new SortedKeySet();
+                readers = new AtomicInteger();
+            }
+            else {
+                personMap.clear();
+                sortedKeys.clear();
+            }
+            version++;
+            for (ListenerInterface listener : listeners) {
+                listener.onClear();
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
      * Добавляет нового человека в коллекцию.
-     * Генерирует уникальный ключ на основе UUID.
+     * Ключ выдается распределителем ключей и не совпадает ни с одним существующим.
      * 
      * @param newElement Массив строк с данными человека
      */
     public void insertToCollection(String[] newElement) {
-        UUID randomUUID = UUID.randomUUID();
-        Integer key = Math.abs(randomUUID.hashCode());
         Person element = makeElement(newElement);
-        personMap.put(key, element);
+        putElement(reserveKeys(1), element);
+    }
+
+    /**
+     * Добавляет в коллекцию сразу много готовых элементов.
+     * Ключи выдаются одним диапазоном, хранилище заранее расширяется под все элементы,
+     * и элементы добавляются за одну блокировку записи, так что читатели
+     * и снимки видят либо все новые элементы, либо ни одного.
+     * 
+     * @param elements Массив элементов
+     * @param count Количество элементов в начале массива
+     * @return Первый ключ диапазона: элемент elements[i] получает ключ first + i
+     * @throws IllegalStateException если в коллекции нет столько свободных ключей подряд
+     */
+    public int insertAll(Person[] elements, int count) {
+        if (count == 0) return getNextKey();
+        int first = reserveKeys(count);
+        lock.writeLock().lock();
+        try {
+            ensureWritable();
+            personMap.ensureCapacity(personMap.size() + count);
+            for (int i = 0; i < count; i++) {
+                personMap.put(first + i, elements[i]);
+            }
+            sortedKeys.addRange(first, count);
+            version++;
+            for (int i = 0; i < count; i++) {
+                for (ListenerInterface listener : listeners) {
+                    listener.onPut(first + i, null, elements[i]);
+                }
+            }
+            return first;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Выдает диапазон подряд идущих ключей, не занятых в коллекции.
+     * Обычно ключи выдаются без блокировки; если окно свободных ключей исчерпано,
+     * под блокировкой менеджера окном назначается промежуток между занятыми ключами:
+     * сначала за концом прежнего окна, затем с начала диапазона ключей.
+     * Промежуток ищется по ключам, уже добавленным в коллекцию, поэтому выданные ключи
+     * нужно занять сразу, не откладывая добавление элементов.
+     *
+     * @param count Количество ключей
+     * @return Первый ключ диапазона
+     * @throws IllegalStateException если в коллекции нет столько свободных ключей подряд
+     */
+    public int reserveKeys(int count) {
+        int first = keyAllocator.reserve(count);
+        if (first >= 0) return first;
+        lock.writeLock().lock();
+        try {
+            first = keyAllocator.reserve(count);
+            if (first >= 0) return first;
+            long gap = sortedKeys.findGap(keyAllocator.peek(), count);
+            if (gap < 0) gap = sortedKeys.findGap(KeyAllocator.FIRST_KEY, count);
+            if (gap < 0) throw new IllegalStateException("Нет свободных ключей для новых элементов: " + count);
+            keyAllocator.reset((int) (gap >>> 32), (int) gap);
+            return keyAllocator.reserve(count);
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает ключ, который будет выдан следующему новому элементу.
+     * Сохраняется вместе с коллекцией, чтобы после загрузки ключи удаленных элементов
+     * не выдавались повторно.
+     * 
+     * @return Следующий ключ
+     */
+    public int getNextKey() {
+        return keyAllocator.peek();
     }
 
     /**
@@ -61,21 +288,63 @@ public class CollectionManager {
      */
     public void updateCollection(Integer key, String[] newElement) {
         Person element = makeElement(newElement);
-        personMap.put(key, element);
+        putElement(key, element);
+    }
+
+    /**
+     * Записывает готовый объект в коллекцию по заданному ключу.
+     * 
+     * @param key Ключ записи
+     * @param element Объект Person
+     */
+    public void putElement(int key, Person element) {
+        lock.writeLock().lock();
+        try {
+            ensureWritable();
+            Person oldElement = personMap.put(key, element);
+            version++;
+            if (oldElement == null) {
+                sortedKeys.add(key);
+                keyAllocator.observe(key);
+            }
+            for (ListenerInterface listener : listeners) {
+                listener.onPut(key, oldElement, element);
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
-     * Проверяет, больше ли новый элемент текущего по сравнению.
+     * Заменяет элемент по ключу, если новый элемент больше текущего.
+     * Сравнение и замена выполняются одной операцией хранилища под блокировкой записи,
+     * поэтому между ними элемент не может быть изменен или удален другим потоком.
+     * Пока снимок коллекции не освобожден, карта копируется только если замена действительно нужна.
      * 
      * @param key Ключ существующего элемента
-     * @param newElement Массив строк с новыми данными
-     * @return true если новый элемент больше существующего
+     * @param element Новый объект Person
+     * @return true если элемент был заменен
      */
-    public boolean checkElement(Integer key, String[] newElement) {
-        Person element = makeElement(newElement);
-        int res = element.compareTo(personMap.get(key));
-        if (res > 0) return true;
-        return false;
+    public boolean replaceIfGreater(int key, Person element) {
+        lock.writeLock().lock();
+        try {
+            if (readers.get() > 0) {
+                Person current = personMap.get(key);
+                if (current == null || element.compareTo(current) <= 0) return false;
+                ensureWritable();
+            }
+            Person oldElement = personMap.replaceIfGreater(key, element);
+            if (oldElement == null) return false;
+            version++;
+            for (ListenerInterface listener : listeners) {
+                listener.onPut(key, oldElement, element);
+            }
+            return true;
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -95,13 +364,13 @@ public class CollectionManager {
         element.setCreationDate(genDate);
         element.setHeight(Integer.parseInt(newElement[3]));
         if (newElement[4] == null) element.setBirthday(null);
-        element.setBirthday(LocalDate.parse(newElement[4]));
+        else element.setBirthday(LocalDate.parse(newElement[4]));
         if (newElement[5] == null) element.setEyeColor(null);
         else element.setEyeColor(ColorEye.valueOf(newElement[5]));
         if (newElement[6] == null) element.setHairColor(null);
         else element.setHairColor(ColorHair.valueOf(newElement[6]));
         Location newLoc = new Location();
-        if (newElement[6] == null) newLoc = null;
+        if (newElement[7] == null) newLoc = null;
         else {
             newLoc.setX(Long.parseLong(newElement[7]));
             newLoc.setY(Float.parseFloat(newElement[8]));
@@ -115,9 +384,9 @@ public class CollectionManager {
     /**
      * Возвращает всю коллекцию людей.
      * 
-     * @return HashMap с коллекцией людей
+     * @return Хранилище с коллекцией людей
      */
-    public HashMap<Integer, Person> getCollection() {
+    public PersonMap getCollection() {
         return personMap;
     }
 
@@ -145,7 +414,29 @@ public class CollectionManager {
      * @return Размер коллекции
      */
     public int getSize() {
-        return personMap.size();
+        lock.readLock().lock();
+        try {
+            return personMap.size();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Проверяет, есть ли в коллекции элемент с заданным ключом.
+     * 
+     * @param key Ключ элемента
+     * @return true если элемент существует
+     */
+    public boolean containsKey(int key) {
+        lock.readLock().lock();
+        try {
+            return personMap.containsKey(key);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -153,13 +444,28 @@ public class CollectionManager {
      * 
      * @param key Ключ элемента для удаления
      */
-    public void removeElement(Integer key) {
-        personMap.remove(key);
+    public void removeElement(int key) {
+        lock.writeLock().lock();
+        try {
+            if (!personMap.containsKey(key)) return;
+            ensureWritable();
+            Person oldElement = personMap.remove(key);
+            if (oldElement == null) return;
+            sortedKeys.remove(key);
+            version++;
+            for (ListenerInterface listener : listeners) {
+                listener.onRemove(key, oldElement);
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
      * Удаляет элементы с ключами меньше или больше заданного,
-     * в зависимости от параметра sort.
+     * в зависимости от параметра sort. Диапазон ключей берется из упорядоченного
+     * множества ключей, поэтому вся коллекция не просматривается.
      * 
      * @param key Ключ для сравнения
      * @param sort true - удалять ключи меньше заданного,
@@ -167,76 +473,359 @@ public class CollectionManager {
      * @return Количество удаленных элементов
      */
     public int removeKeys(Integer key, boolean sort) {
-        int res = 0;
-        if (personMap == null) {
-            return -1;
-        }
-        for (Integer k : personMap.keySet()) {
-            if (sort) {
-                if (k.compareTo(key) < 0) {
-                    removeElement(k);
-                    res++;
-                }
+        lock.writeLock().lock();
+        try {
+            if (personMap == null) {
+                return -1;
             }
-            else {
-                if (k.compareTo(key) > 0) {
-                    removeElement(k);
-                    res++;
+            if (sort ? sortedKeys.first() >= key : sortedKeys.last() <= key) return 0;
+            ensureWritable();
+            version++;
+            int[] keys = sort ? sortedKeys.removeLower(key) : sortedKeys.removeGreater(key);
+            for (int removedKey : keys) {
+                Person oldElement = personMap.remove(removedKey);
+                for (ListenerInterface listener : listeners) {
+                    listener.onRemove(removedKey, oldElement);
                 }
             }
+            return keys.length;
+        }
+        finally {
+            lock.writeLock().unlock();
         }
-        return res;
     }
 
     /**
-     * Сортирует коллекцию по ключам и выводит отсортированные элементы.
+     * Выводит элементы коллекции в порядке возрастания ключей.
+     * Выводится снимок коллекции, поэтому вывод не задерживает изменения.
      */
     public void sortCollection() {
-        List<Integer> sortedKeys = new ArrayList<>(personMap.keySet());
-        Collections.sort(sortedKeys);
-        for (Integer key : sortedKeys) {
-            System.out.println("ключ: [" + key + "] = значение: " + personMap.get(key));
+        try (Snapshot snapshot = openSnapshot()) {
+            PersonMap map = snapshot.getMap();
+            PrimitiveIterator.OfInt keys = snapshot.sortedKeys();
+            while (keys.hasNext()) {
+                int key = keys.nextInt();
+                System.out.println("ключ: [" + key + "] = значение: " + map.get(key));
+            }
         }
     }
 
     /**
-     * Сортирует и выводит все уникальные цвета волос в коллекции.
+     * Выводит цвета волос, встречающиеся в коллекции, в алфавитном порядке
+     * вместе с количеством людей с каждым цветом.
+     * Количества берутся из счетчиков цветов, коллекция не просматривается.
      */
     public void sortHair() {
-        List<String> hair = new ArrayList<>();
-        for (Person p : personMap.values()) {
-            if (p.getHairColor() == null) continue;
-            hair.add(p.getHairColor().toString());
+        lock.readLock().lock();
+        try {
+            colors.prepare(personMap);
+            printColors(ColorHair.values(), colors.getHairCounts(), false);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Выводит цвета глаз, встречающиеся в коллекции, в алфавитном порядке
+     * вместе с количеством людей с каждым цветом.
+     */
+    public void sortEye() {
+        lock.readLock().lock();
+        try {
+            colors.prepare(personMap);
+            printColors(ColorEye.values(), colors.getEyeCounts(), false);
+        }
+        finally {
+            lock.readLock().unlock();
         }
-        Collections.sort(hair);
-        System.out.println(hair);
     }
 
     /**
      * Выводит уникальные цвета волос, которые встречаются только один раз.
      */
     public void printUniqueHair() {
-        HashMap<String, Integer> uniqueHair = new HashMap<>();
-        for (Entry<Integer, Person> entry : personMap.entrySet()) {
-            if (personMap.get(entry.getKey()).getHairColor() == null) continue;
-            if (uniqueHair.get(entry.getValue().getHairColor().toString()) == null) 
-                uniqueHair.put(entry.getValue().getHairColor().toString(), 1);
-            else uniqueHair.put(entry.getValue().getHairColor().toString(), 
-                uniqueHair.get(entry.getValue().getHairColor().toString()) + 1);
+        lock.readLock().lock();
+        try {
+            colors.prepare(personMap);
+            printColors(ColorHair.values(), colors.getHairCounts(), true);
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Выводит элементы, координаты которых ближе всего к точке, в порядке возрастания расстояния.
+     * Элементы ищутся по пространственному индексу.
+     * 
+     * @param x Координата X точки
+     * @param y Координата Y точки
+     * @param k Количество элементов
+     * @return Количество выведенных элементов
+     */
+    public int printNearest(double x, double y, int k) {
+        lock.readLock().lock();
+        try {
+            grid.prepare(personMap);
+            return printKeys(grid.nearest(x, y, k));
         }
-        for (String s : uniqueHair.keySet()) {
-            if (uniqueHair.get(s) == 1) {
-                System.out.println(s);
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Выводит в порядке ключей элементы, координаты которых лежат в прямоугольнике.
+     * Элементы ищутся по пространственному индексу.
+     * 
+     * @param x1 Координата X одного угла
+     * @param y1 Координата Y одного угла
+     * @param x2 Координата X противоположного угла
+     * @param y2 Координата Y противоположного угла
+     * @return Количество выведенных элементов
+     */
+    public int printInArea(double x1, double y1, double x2, double y2) {
+        lock.readLock().lock();
+        try {
+            grid.prepare(personMap);
+            return printKeys(grid.inArea(x1, y1, x2, y2));
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Выводит в порядке ключей элементы с заданным именем.
+     * Элементы ищутся по индексу имен.
+     * 
+     * @param name Имя
+     * @return Количество выведенных элементов
+     */
+    public int printByName(String name) {
+        lock.readLock().lock();
+        try {
+            names.prepare(personMap);
+            return printKeys(names.findName(name));
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Выводит элементы, имя которых начинается с префикса: по алфавиту имен,
+     * элементы с одинаковым именем - в порядке ключей.
+     * Элементы ищутся по индексу имен.
+     * 
+     * @param prefix Начало имени
+     * @return Количество выведенных элементов
+     */
+    public int printByPrefix(String prefix) {
+        lock.readLock().lock();
+        try {
+            names.prepare(personMap);
+            return printKeys(names.findPrefix(prefix));
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Выводит статистику роста: количество, сумму, наименьшее, наибольшее и среднее значение,
+     * процентили и гистограмму. Статистика ведется при изменениях коллекции.
+     * 
+     * @param bins Наибольшее количество интервалов гистограммы
+     * @return false если коллекция пуста
+     */
+    public boolean printHeightStats(int bins) {
+        lock.readLock().lock();
+        try {
+            heights.prepare(personMap);
+            int count = heights.getCount();
+            if (count == 0) return false;
+            int min = heights.getMin();
+            long sum = heights.getSum();
+            System.out.println("Количество: " + count);
+            System.out.println("Сумма роста: " + sum);
+            System.out.println("Наименьший рост: " + min);
+            System.out.println("Наибольший рост: " + heights.getMax());
+            System.out.println("Средний рост: " + String.format("%.2f", (double) sum / count));
+            System.out.println("Процентили (погрешность до " + Math.round(HeightSketch.RELATIVE_ACCURACY * 100) + "%):");
+            for (int percent : new int[] {25, 50, 75, 90, 99}) {
+                System.out.println("  " + percent + "%: " + Math.round(heights.quantile(percent / 100.0)));
+            }
+            int[] histogram = heights.histogram(bins);
+            long width = HeightStats.binWidth(min, heights.getMax(), bins);
+            System.out.println("Гистограмма:");
+            for (int i = 0; i < histogram.length; i++) {
+                long from = min + i * width;
+                System.out.println("  [" + from + "; " + (from + width - 1) + "]: " + histogram[i]);
             }
+            return true;
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Выводит элементы, родившиеся в промежутке дат, в порядке дня рождения.
+     * Элементы ищутся по индексу дней рождения.
+     * 
+     * @param from Первый день (включается)
+     * @param to Последний день (включается)
+     * @return Количество выведенных элементов
+     */
+    public int printBornBetween(LocalDate from, LocalDate to) {
+        lock.readLock().lock();
+        try {
+            dates.prepare(personMap);
+            return printKeys(dates.bornBetween(from, to));
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Выводит элементы, созданные не раньше заданного момента, в порядке даты создания.
+     * Элементы ищутся по индексу дат создания.
+     * 
+     * @param since Начало промежутка
+     * @return Количество выведенных элементов
+     */
+    public int printCreatedSince(LocalDateTime since) {
+        lock.readLock().lock();
+        try {
+            dates.prepare(personMap);
+            return printKeys(dates.createdSince(since));
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество элементов без дня рождения. Такие элементы
+     * не попадают в результаты поиска по дню рождения.
+     * 
+     * @return Количество элементов без дня рождения
+     */
+    public int getWithoutBirthday() {
+        lock.readLock().lock();
+        try {
+            dates.prepare(personMap);
+            return dates.getWithoutBirthday();
+        }
+        finally {
+            lock.readLock().unlock();
         }
     }
 
+    /**
+     * Выводит в порядке ключей элементы, локация которых лежит в параллелепипеде.
+     * Элементы ищутся по октодереву локаций.
+     * 
+     * @param x1 Координата X одного угла
+     * @param y1 Координата Y одного угла
+     * @param z1 Координата Z одного угла
+     * @param x2 Координата X противоположного угла
+     * @param y2 Координата Y противоположного угла
+     * @param z2 Координата Z противоположного угла
+     * @return Количество выведенных элементов
+     */
+    public int printInBox(double x1, double y1, double z1, double x2, double y2, double z2) {
+        lock.readLock().lock();
+        try {
+            locations.prepare(personMap);
+            return printKeys(locations.inBox(x1, y1, z1, x2, y2, z2));
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Выводит в порядке ключей элементы, локация которых удалена от точки не больше чем на радиус.
+     * Элементы ищутся по октодереву локаций.
+     * 
+     * @param x Координата X центра
+     * @param y Координата Y центра
+     * @param z Координата Z центра
+     * @param radius Радиус
+     * @return Количество выведенных элементов
+     */
+    public int printInRadius(double x, double y, double z, double radius) {
+        lock.readLock().lock();
+        try {
+            locations.prepare(personMap);
+            return printKeys(locations.inRadius(x, y, z, radius));
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает количество элементов без локации. Такие элементы
+     * не попадают в результаты поиска по локации.
+     * 
+     * @return Количество элементов без локации
+     */
+    public int getWithoutLocation() {
+        lock.readLock().lock();
+        try {
+            locations.prepare(personMap);
+            return locations.getWithoutLocation();
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Выводит цвета в алфавитном порядке названий.
+     * 
+     * @param values Все значения перечисления цветов
+     * @param counts Количество людей с каждым цветом по порядковым номерам
+     * @param unique true - выводить только цвета, встречающиеся один раз, без количества
+     */
+    private void printColors(Enum<?>[] values, int[] counts, boolean unique) {
+        Enum<?>[] sorted = values.clone();
+        Arrays.sort(sorted, Comparator.comparing(Enum::name));
+        for (Enum<?> color : sorted) {
+            int count = counts[color.ordinal()];
+            if (unique && count == 1) System.out.println(color);
+            else if (!unique && count > 0) System.out.println(color + ": " + count);
+        }
+    }
+
+    /**
+     * Выводит элементы коллекции с заданными ключами в заданном порядке.
+     * Вызывается под блокировкой чтения.
+     * 
+     * @param keys Ключи элементов
+     * @return Количество выведенных элементов
+     */
+    private int printKeys(int[] keys) {
+        for (int key : keys) {
+            System.out.println("ключ: [" + key + "] = значение: " + personMap.get(key));
+        }
+        return keys.length;
+    }
+
     /**
      * Выводит все элементы коллекции.
+     * Выводится снимок коллекции, поэтому вывод не задерживает изменения.
      */
     public void printCollection() {
-        for (Entry<Integer, Person> entry : personMap.entrySet()) {
-            System.out.println("ключ: [" + entry.getKey() + "] = значение: " + entry.getValue());
+        try (Snapshot snapshot = openSnapshot()) {
+            for (Entry<Integer, Person> entry : snapshot.getMap().entrySet()) {
+                System.out.println("ключ: [" + entry.getKey() + "] = значение: " + entry.getValue());
+            }
         }
     }
 
@@ -245,7 +834,40 @@ public class CollectionManager {
      * 
      * @param map Новая коллекция для установки
      */
-    public void setCollection(HashMap<Integer, Person> map) {
-        personMap = map;
+    public void setCollection(PersonMap map) {
+        setCollection(map, KeyAllocator.FIRST_KEY);
+    }
+
+    /**
+     * Устанавливает новую коллекцию, прочитанную из файла.
+     * Новые ключи будут выдаваться начиная с большего из сохраненного следующего ключа
+     * и ключа, следующего за наибольшим в коллекции.
+     * 
+     * @param map Новая коллекция для установки
+     * @param nextKey Следующий ключ, сохраненный вместе с коллекцией
+     */
+    public void setCollection(PersonMap map, int nextKey) {
+        lock.writeLock().lock();
+        try {
+            personMap = map;
+            sortedKeys = new SortedKeySet();
+            readers = new AtomicInteger();
+            version++;
+            int[] keys = new int[map.size()];
+            int i = 0;
+            PersonMap.Cursor cursor = map.cursor();
+            while (cursor.hasNext()) {
+                keys[i++] = cursor.nextKey();
+            }
+            sortedKeys.rebuild(keys);
+            int last = sortedKeys.last();
+            keyAllocator.reset(last == Integer.MAX_VALUE ? Integer.MAX_VALUE : Math.max(nextKey, last + 1), Integer.MAX_VALUE);
+            for (ListenerInterface listener : listeners) {
+                listener.onLoad(map);
+            }
+        }
+        finally {
+            lock.writeLock().unlock();
+        }
     }
 }
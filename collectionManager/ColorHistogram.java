@@ -0,0 +1,86 @@
+package collectionManager;
+
+import java.util.Arrays;
+
+import collection.ColorEye;
+import collection.ColorHair;
+import collection.Person;
+
+/**
+ * Счетчики элементов коллекции по цвету волос и цвету глаз.
+ * Для каждого цвета хранится количество людей с этим цветом в массиве,
+ * индексированном порядковым номером цвета. Счетчики обновляются при каждом
+ * изменении коллекции, поэтому запросы по цветам не просматривают коллекцию.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class ColorHistogram extends LazyIndex {
+    private final int[] hair = new int[ColorHair.values().length];
+    private final int[] eye = new int[ColorEye.values().length];
+
+    /**
+     * Возвращает количество людей с каждым цветом волос.
+     *
+     * @return Массив количеств по порядковым номерам ColorHair
+     */
+    public int[] getHairCounts() {
+        return hair.clone();
+    }
+
+    /**
+     * Возвращает количество людей с каждым цветом глаз.
+     *
+     * @return Массив количеств по порядковым номерам ColorEye
+     */
+    public int[] getEyeCounts() {
+        return eye.clone();
+    }
+
+    @Override
+    protected void addElement(int key, Person person) {
+        count(person, 1);
+    }
+
+    @Override
+    protected void removeElement(int key, Person person) {
+        count(person, -1);
+    }
+
+    @Override
+    protected void clear() {
+        Arrays.fill(hair, 0);
+        Arrays.fill(eye, 0);
+    }
+
+    /**
+     * Пересчитывает счетчики по всей коллекции.
+     * Столбцовое хранилище считает цвета по своим столбцам, не создавая объекты Person.
+     *
+     * @param map Коллекция
+     */
+    @Override
+    protected void rebuild(PersonMap map) {
+        if (map instanceof ColumnarPersonMap) {
+            ((ColumnarPersonMap) map).countColors(hair, eye);
+            return;
+        }
+        PersonMap.Cursor cursor = map.cursor();
+        while (cursor.hasNext()) {
+            cursor.nextKey();
+            count(cursor.value(), 1);
+        }
+    }
+
+    /**
+     * Учитывает цвета одного человека.
+     *
+     * @param person Человек
+     * @param delta 1 - добавить, -1 - вычесть
+     */
+    private void count(Person person, int delta) {
+        if (person.getHairColor() != null) hair[person.getHairColor().ordinal()] += delta;
+        if (person.getEyeColor() != null) eye[person.getEyeColor().ordinal()] += delta;
+    }
+}
@@ -0,0 +1,201 @@
+package collectionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import collection.ColorEye;
+import collection.ColorHair;
+import collection.Coordinates;
+import collection.Location;
+import collection.Person;
+
+/**
+ * Хранилище коллекции по столбцам: каждое поле Person хранится в отдельном
+ * примитивном массиве, элемент занимает одну строку всех массивов.
+ * Даты хранятся в виде значений от эпохи, цвета - порядковыми номерами,
+ * отсутствие значения - особым значением столбца. Объект Person создается
+ * при каждом обращении к элементу и не связан с хранилищем: чтобы изменить
+ * элемент, его нужно записать заново через put.
+ * Строки и индекс ключей ведет {@link RowPersonMap}.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class ColumnarPersonMap extends RowPersonMap {
+    private static final long NO_BIRTHDAY = Long.MIN_VALUE;
+    private static final byte NO_COLOR = -1;
+
+    private static final ColorEye[] EYE_COLORS = ColorEye.values();
+    private static final ColorHair[] HAIR_COLORS = ColorHair.values();
+
+    private String[] names;
+    private float[] coordinateX;
+    private long[] coordinateY;
+    private long[] creationSeconds;
+    private int[] creationNanos;
+    private int[] heights;
+    private long[] birthdays;
+    private byte[] eyeColors;
+    private byte[] hairColors;
+    private String[] locationNames;
+    private long[] locationX;
+    private float[] locationY;
+    private int[] locationZ;
+
+    /**
+     * Создает пустое хранилище.
+     */
+    public ColumnarPersonMap() {
+        this(0);
+    }
+
+    /**
+     * Создает пустое хранилище, рассчитанное на заданное количество элементов без расширения.
+     *
+     * @param expectedSize Ожидаемое количество элементов
+     */
+    public ColumnarPersonMap(int expectedSize) {
+        super(expectedSize);
+        resizeRows(capacity());
+    }
+
+    private ColumnarPersonMap(ColumnarPersonMap other) {
+        super(other);
+        names = other.names.clone();
+        coordinateX = other.coordinateX.clone();
+        coordinateY = other.coordinateY.clone();
+        creationSeconds = other.creationSeconds.clone();
+        creationNanos = other.creationNanos.clone();
+        heights = other.heights.clone();
+        birthdays = other.birthdays.clone();
+        eyeColors = other.eyeColors.clone();
+        hairColors = other.hairColors.clone();
+        locationNames = other.locationNames.clone();
+        locationX = other.locationX.clone();
+        locationY = other.locationY.clone();
+        locationZ = other.locationZ.clone();
+    }
+
+    @Override
+    public PersonMap copy() {
+        return new ColumnarPersonMap(this);
+    }
+
+    /**
+     * Подсчитывает количество элементов с каждым цветом волос и глаз,
+     * просматривая только столбцы цветов.
+     *
+     * @param hair Массив, в который добавляются количества по порядковым номерам ColorHair
+     * @param eye Массив, в который добавляются количества по порядковым номерам ColorEye
+     */
+    public void countColors(int[] hair, int[] eye) {
+        int size = size();
+        for (int row = 0; row < size; row++) {
+            if (hairColors[row] != NO_COLOR) hair[hairColors[row]]++;
+            if (eyeColors[row] != NO_COLOR) eye[eyeColors[row]]++;
+        }
+    }
+
+    @Override
+    protected Person readRow(int row) {
+        Coordinates coordinates = new Coordinates(coordinateX[row], coordinateY[row]);
+        LocalDateTime creationDate = LocalDateTime.ofEpochSecond(creationSeconds[row], creationNanos[row], ZoneOffset.UTC);
+        Person person = new Person(names[row], coordinates, creationDate, heights[row], null, null, null, null);
+        if (birthdays[row] != NO_BIRTHDAY) person.setBirthday(LocalDate.ofEpochDay(birthdays[row]));
+        if (eyeColors[row] != NO_COLOR) person.setEyeColor(EYE_COLORS[eyeColors[row]]);
+        if (hairColors[row] != NO_COLOR) person.setHairColor(HAIR_COLORS[hairColors[row]]);
+        if (locationNames[row] != null) {
+            person.setLocation(new Location(locationX[row], locationY[row], locationZ[row], locationNames[row]));
+        }
+        return person;
+    }
+
+    @Override
+    protected void writeRow(int row, Person person, boolean replace) {
+        names[row] = person.getName();
+        coordinateX[row] = person.getCoordinates().getX();
+        coordinateY[row] = person.getCoordinates().getY();
+        creationSeconds[row] = person.getCreationDate().toEpochSecond(ZoneOffset.UTC);
+        creationNanos[row] = person.getCreationDate().getNano();
+        heights[row] = person.getHeight();
+        birthdays[row] = person.getBirthday() == null ? NO_BIRTHDAY : person.getBirthday().toEpochDay();
+        eyeColors[row] = person.getEyeColor() == null ? NO_COLOR : (byte) person.getEyeColor().ordinal();
+        hairColors[row] = person.getHairColor() == null ? NO_COLOR : (byte) person.getHairColor().ordinal();
+        Location location = person.getLocation();
+        if (location == null) {
+            locationNames[row] = null;
+        }
+        else {
+            locationNames[row] = location.getName();
+            locationX[row] = location.getX();
+            locationY[row] = location.getY();
+            locationZ[row] = location.getZ();
+        }
+    }
+
+    @Override
+    protected void moveRow(int from, int to) {
+        names[to] = names[from];
+        coordinateX[to] = coordinateX[from];
+        coordinateY[to] = coordinateY[from];
+        creationSeconds[to] = creationSeconds[from];
+        creationNanos[to] = creationNanos[from];
+        heights[to] = heights[from];
+        birthdays[to] = birthdays[from];
+        eyeColors[to] = eyeColors[from];
+        hairColors[to] = hairColors[from];
+        locationNames[to] = locationNames[from];
+        locationX[to] = locationX[from];
+        locationY[to] = locationY[from];
+        locationZ[to] = locationZ[from];
+        releaseRow(from);
+    }
+
+    @Override
+    protected void releaseRow(int row) {
+        names[row] = null;
+        locationNames[row] = null;
+    }
+
+    @Override
+    protected void releaseRows(int count) {
+        Arrays.fill(names, 0, count, null);
+        Arrays.fill(locationNames, 0, count, null);
+    }
+
+    @Override
+    protected void resizeRows(int capacity) {
+        if (names == null) {
+            names = new String[capacity];
+            coordinateX = new float[capacity];
+            coordinateY = new long[capacity];
+            creationSeconds = new long[capacity];
+            creationNanos = new int[capacity];
+            heights = new int[capacity];
+            birthdays = new long[capacity];
+            eyeColors = new byte[capacity];
+            hairColors = new byte[capacity];
+            locationNames = new String[capacity];
+            locationX = new long[capacity];
+            locationY = new float[capacity];
+            locationZ = new int[capacity];
+            return;
+        }
+        names = Arrays.copyOf(names, capacity);
+        coordinateX = Arrays.copyOf(coordinateX, capacity);
+        coordinateY = Arrays.copyOf(coordinateY, capacity);
+        creationSeconds = Arrays.copyOf(creationSeconds, capacity);
+        creationNanos = Arrays.copyOf(creationNanos, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        birthdays = Arrays.copyOf(birthdays, capacity);
+        eyeColors = Arrays.copyOf(eyeColors, capacity);
+        hairColors = Arrays.copyOf(hairColors, capacity);
+        locationNames = Arrays.copyOf(locationNames, capacity);
+        locationX = Arrays.copyOf(locationX, capacity);
+        locationY = Arrays.copyOf(locationY, capacity);
+        locationZ = Arrays.copyOf(locationZ, capacity);
+    }
+}
@@ -0,0 +1,419 @@
+package collectionManager;
+
+import java.util.Arrays;
+
+import collection.Coordinates;
+import collection.Person;
+
+/**
+ * Пространственный индекс элементов коллекции по координатам (Coordinates).
+ * Плоскость делится на одинаковые квадратные ячейки; в ячейке хранятся ключи
+ * и координаты попавших в нее элементов, пустые ячейки не хранятся.
+ * Сторона ячейки подбирается по области, занятой элементами, так чтобы
+ * в ячейке было в среднем несколько элементов; когда элементов становится
+ * в несколько раз больше, индекс перестраивается с меньшими ячейками.
+ * Ближайшие элементы ищутся по кольцам ячеек вокруг точки, прямоугольник -
+ * по ячейкам, которые он пересекает, поэтому запрос не просматривает всю коллекцию.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class CoordinateGrid extends LazyIndex {
+    private static final int TARGET_PER_CELL = 16;
+    private static final int MIN_REBUILD_SIZE = 1024;
+    private static final int GROWTH_FACTOR = 4;
+
+    private CellTable cells = new CellTable();
+    private double side = 1;
+    private int size = 0;
+    private int rebuildSize = MIN_REBUILD_SIZE;
+
+    /**
+     * Ячейка сетки: ключи и координаты элементов в параллельных массивах.
+     */
+    private static class Cell {
+        final int cellX;
+        final int cellY;
+        int[] keys = new int[4];
+        float[] xs = new float[4];
+        long[] ys = new long[4];
+        int count = 0;
+
+        Cell(int cellX, int cellY) {
+            this.cellX = cellX;
+            this.cellY = cellY;
+        }
+
+        void add(int key, float x, long y) {
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+                xs = Arrays.copyOf(xs, count * 2);
+                ys = Arrays.copyOf(ys, count * 2);
+            }
+            keys[count] = key;
+            xs[count] = x;
+            ys[count] = y;
+            count++;
+        }
+
+        boolean remove(int key) {
+            for (int i = 0; i < count; i++) {
+                if (keys[i] != key) continue;
+                count--;
+                keys[i] = keys[count];
+                xs[i] = xs[count];
+                ys[i] = ys[count];
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Хеш-таблица непустых ячеек с открытой адресацией по номерам ячейки,
+     * без упаковки номеров в объекты и узлов списка, как в {@link IntPersonMap}.
+     */
+    private static class CellTable {
+        Cell[] slots = new Cell[16];
+        int size = 0;
+
+        Cell get(int cellX, int cellY) {
+            int mask = slots.length - 1;
+            for (int slot = hash(cellX, cellY) & mask; slots[slot] != null; slot = (slot + 1) & mask) {
+                Cell cell = slots[slot];
+                if (cell.cellX == cellX && cell.cellY == cellY) return cell;
+            }
+            return null;
+        }
+
+        Cell getOrAdd(int cellX, int cellY) {
+            int mask = slots.length - 1;
+            int slot = hash(cellX, cellY) & mask;
+            for (; slots[slot] != null; slot = (slot + 1) & mask) {
+                Cell cell = slots[slot];
+                if (cell.cellX == cellX && cell.cellY == cellY) return cell;
+            }
+            Cell cell = new Cell(cellX, cellY);
+            slots[slot] = cell;
+            if (++size > slots.length * 3 / 4) resize();
+            return cell;
+        }
+
+        /**
+         * Удаляет ячейку и сдвигает назад следующие ячейки цепочки, как в {@link IntPersonMap}.
+         */
+        void remove(Cell cell) {
+            int mask = slots.length - 1;
+            int slot = hash(cell.cellX, cell.cellY) & mask;
+            while (slots[slot] != cell) slot = (slot + 1) & mask;
+            size--;
+            for (;;) {
+                int last = slot;
+                slot = (slot + 1) & mask;
+                for (;;) {
+                    if (slots[slot] == null) {
+                        slots[last] = null;
+                        return;
+                    }
+                    int home = hash(slots[slot].cellX, slots[slot].cellY) & mask;
+                    if (last <= slot ? (last >= home || home > slot) : (last >= home && home > slot)) break;
+                    slot = (slot + 1) & mask;
+                }
+                slots[last] = slots[slot];
+            }
+        }
+
+        private void resize() {
+            Cell[] old = slots;
+            slots = new Cell[old.length * 2];
+            int mask = slots.length - 1;
+            for (Cell cell : old) {
+                if (cell == null) continue;
+                int slot = hash(cell.cellX, cell.cellY) & mask;
+                while (slots[slot] != null) slot = (slot + 1) & mask;
+                slots[slot] = cell;
+            }
+        }
+
+        private static int hash(int cellX, int cellY) {
+            int h = (cellX * 0x9E3779B9) ^ (cellY * 0x85EBCA6B);
+            return h ^ (h >>> 16);
+        }
+    }
+
+    /**
+     * Ближайшие найденные элементы: двоичная куча с наибольшим расстоянием в корне.
+     */
+    private static class Nearest {
+        final int[] keys;
+        final double[] distances;
+        int count = 0;
+
+        Nearest(int k) {
+            keys = new int[k];
+            distances = new double[k];
+        }
+
+        boolean isFull() {
+            return count == keys.length;
+        }
+
+        double worst() {
+            return distances[0];
+        }
+
+        void offer(int key, double distance) {
+            if (!(distance >= 0)) return;
+            if (!isFull()) {
+                int i = count++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (distances[parent] >= distance) break;
+                    keys[i] = keys[parent];
+                    distances[i] = distances[parent];
+                    i = parent;
+                }
+                keys[i] = key;
+                distances[i] = distance;
+            }
+            else if (distance < distances[0]) {
+                siftDown(key, distance);
+            }
+        }
+
+        /**
+         * Возвращает ключи в порядке возрастания расстояния, опустошая кучу.
+         */
+        int[] sortedKeys() {
+            int[] result = new int[count];
+            while (count > 0) {
+                result[count - 1] = keys[0];
+                count--;
+                if (count > 0) siftDown(keys[count], distances[count]);
+            }
+            return result;
+        }
+
+        /**
+         * Ставит элемент на место корня и опускает его вниз по куче.
+         */
+        private void siftDown(int key, double distance) {
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= count) break;
+                if (child + 1 < count && distances[child + 1] > distances[child]) child++;
+                if (distances[child] <= distance) break;
+                keys[i] = keys[child];
+                distances[i] = distances[child];
+                i = child;
+            }
+            keys[i] = key;
+            distances[i] = distance;
+        }
+    }
+
+    /**
+     * Находит элементы, ближайшие к точке.
+     *
+     * @param x Координата X точки
+     * @param y Координата Y точки
+     * @param k Количество элементов
+     * @return Ключи не более чем k элементов в порядке возрастания расстояния до точки
+     */
+    public int[] nearest(double x, double y, int k) {
+        Nearest nearest = new Nearest(Math.min(k, size));
+        if (nearest.keys.length == 0) return new int[0];
+        long centerX = cellOf(x);
+        long centerY = cellOf(y);
+        for (long ring = 0; ; ring++) {
+            if ((2 * ring + 1) * (2 * ring + 1) > 2L * cells.size) {
+                for (Cell cell : cells.slots) {
+                    if (cell != null && Math.max(Math.abs(cell.cellX - centerX), Math.abs(cell.cellY - centerY)) >= ring) {
+                        offerCell(nearest, cell, x, y);
+                    }
+                }
+                break;
+            }
+            for (long cellX = centerX - ring; cellX <= centerX + ring; cellX++) {
+                boolean edge = cellX == centerX - ring || cellX == centerX + ring;
+                for (long cellY = centerY - ring; cellY <= centerY + ring; cellY += edge ? 1 : 2 * ring) {
+                    Cell cell = cell(cellX, cellY);
+                    if (cell != null) offerCell(nearest, cell, x, y);
+                }
+            }
+            if (nearest.isFull() && nearest.worst() <= ring * side) break;
+        }
+        return nearest.sortedKeys();
+    }
+
+    /**
+     * Находит элементы, координаты которых лежат в прямоугольнике (границы включаются).
+     *
+     * @param x1 Координата X одного угла
+     * @param y1 Координата Y одного угла
+     * @param x2 Координата X противоположного угла
+     * @param y2 Координата Y противоположного угла
+     * @return Ключи найденных элементов в порядке возрастания
+     */
+    public int[] inArea(double x1, double y1, double x2, double y2) {
+        double minX = Math.min(x1, x2);
+        double maxX = Math.max(x1, x2);
+        double minY = Math.min(y1, y2);
+        double maxY = Math.max(y1, y2);
+        long fromX = cellOf(minX);
+        long toX = cellOf(maxX);
+        long fromY = cellOf(minY);
+        long toY = cellOf(maxY);
+        int[] result = new int[16];
+        int count = 0;
+        boolean scanAll = (double) (toX - fromX + 1) * (toY - fromY + 1) > cells.size;
+        Cell[] candidates = scanAll ? cells.slots : cellsInRange(fromX, toX, fromY, toY);
+        for (Cell cell : candidates) {
+            if (cell == null || cell.cellX < fromX || cell.cellX > toX || cell.cellY < fromY || cell.cellY > toY) continue;
+            for (int i = 0; i < cell.count; i++) {
+                if (!(cell.xs[i] >= minX && cell.xs[i] <= maxX && cell.ys[i] >= minY && cell.ys[i] <= maxY)) continue;
+                if (count == result.length) result = Arrays.copyOf(result, count * 2);
+                result[count++] = cell.keys[i];
+            }
+        }
+        result = Arrays.copyOf(result, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    @Override
+    protected void addElement(int key, Person person) {
+        Coordinates coordinates = person.getCoordinates();
+        cells.getOrAdd((int) cellOf(coordinates.getX()), (int) cellOf(coordinates.getY()))
+            .add(key, coordinates.getX(), coordinates.getY());
+        size++;
+        if (size >= rebuildSize) regrid();
+    }
+
+    @Override
+    protected void removeElement(int key, Person person) {
+        Coordinates coordinates = person.getCoordinates();
+        Cell cell = cells.get((int) cellOf(coordinates.getX()), (int) cellOf(coordinates.getY()));
+        if (cell == null || !cell.remove(key)) return;
+        if (cell.count == 0) cells.remove(cell);
+        size--;
+    }
+
+    @Override
+    protected void clear() {
+        cells = new CellTable();
+        side = 1;
+        size = 0;
+        rebuildSize = MIN_REBUILD_SIZE;
+    }
+
+    /**
+     * Строит индекс заново по всей коллекции.
+     *
+     * @param map Коллекция
+     */
+    @Override
+    protected void rebuild(PersonMap map) {
+        int count = map.size();
+        int[] keys = new int[count];
+        float[] xs = new float[count];
+        long[] ys = new long[count];
+        int i = 0;
+        PersonMap.Cursor cursor = map.cursor();
+        while (cursor.hasNext()) {
+            keys[i] = cursor.nextKey();
+            Coordinates coordinates = cursor.value().getCoordinates();
+            xs[i] = coordinates.getX();
+            ys[i] = coordinates.getY();
+            i++;
+        }
+        fill(keys, xs, ys, count);
+    }
+
+    /**
+     * Перестраивает индекс по его собственным точкам с новым размером ячейки.
+     */
+    private void regrid() {
+        int[] keys = new int[size];
+        float[] xs = new float[size];
+        long[] ys = new long[size];
+        int i = 0;
+        for (Cell cell : cells.slots) {
+            if (cell == null) continue;
+            System.arraycopy(cell.keys, 0, keys, i, cell.count);
+            System.arraycopy(cell.xs, 0, xs, i, cell.count);
+            System.arraycopy(cell.ys, 0, ys, i, cell.count);
+            i += cell.count;
+        }
+        fill(keys, xs, ys, i);
+    }
+
+    /**
+     * Подбирает сторону ячейки по области, занятой точками, и раскладывает точки по ячейкам.
+     */
+    private void fill(int[] keys, float[] xs, long[] ys, int count) {
+        double minX = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            if (!Float.isFinite(xs[i])) continue;
+            minX = Math.min(minX, xs[i]);
+            maxX = Math.max(maxX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        double width = maxX - minX;
+        double height = maxY - minY;
+        double newSide = width > 0 && height > 0 ? Math.sqrt(width * height * TARGET_PER_CELL / count)
+            : Math.max(width, height) * TARGET_PER_CELL / count;
+        cells = new CellTable();
+        side = newSide > 0 && Double.isFinite(newSide) ? newSide : 1;
+        size = 0;
+        rebuildSize = Math.max(MIN_REBUILD_SIZE, count * GROWTH_FACTOR);
+        for (int i = 0; i < count; i++) {
+            cells.getOrAdd((int) cellOf(xs[i]), (int) cellOf(ys[i])).add(keys[i], xs[i], ys[i]);
+            size++;
+        }
+    }
+
+    private void offerCell(Nearest nearest, Cell cell, double x, double y) {
+        for (int i = 0; i < cell.count; i++) {
+            double dx = cell.xs[i] - x;
+            double dy = cell.ys[i] - y;
+            nearest.offer(cell.keys[i], Math.sqrt(dx * dx + dy * dy));
+        }
+    }
+
+    /**
+     * Возвращает непустые ячейки прямоугольного диапазона номеров.
+     */
+    private Cell[] cellsInRange(long fromX, long toX, long fromY, long toY) {
+        Cell[] result = new Cell[(int) ((toX - fromX + 1) * (toY - fromY + 1))];
+        int count = 0;
+        for (long cellX = fromX; cellX <= toX; cellX++) {
+            for (long cellY = fromY; cellY <= toY; cellY++) {
+                Cell cell = cell(cellX, cellY);
+                if (cell != null) result[count++] = cell;
+            }
+        }
+        return result;
+    }
+
+    private Cell cell(long cellX, long cellY) {
+        if (cellX != (int) cellX || cellY != (int) cellY) return null;
+        return cells.get((int) cellX, (int) cellY);
+    }
+
+    /**
+     * Возвращает номер ячейки по координате. Номера ограничены диапазоном int,
+     * точки с NaN попадают в ячейку 0.
+     */
+    private long cellOf(double coordinate) {
+        double cell = Math.floor(coordinate / side);
+        if (cell != cell) return 0;
+        return (long) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, cell));
+    }
+}
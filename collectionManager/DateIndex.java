@@ -0,0 +1,115 @@
+package collectionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import collection.Person;
+
+/**
+ * Индексы элементов коллекции по дню рождения и по дате создания.
+ * День рождения хранится номером дня от начала эпохи, дата создания - миллисекундами
+ * от начала эпохи, считая время записи временем UTC, как в {@link fileManager.PersonCodec};
+ * оба индекса упорядочены ({@link SortedLongIndex}), поэтому выборка k элементов
+ * из промежутка времени стоит O(log n + k) и не просматривает коллекцию.
+ * Элементы без дня рождения в первый индекс (по дню рождения) не попадают и только подсчитываются.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class DateIndex extends LazyIndex {
+    private final SortedLongIndex birthdays = new SortedLongIndex();
+    private final SortedLongIndex creationDates = new SortedLongIndex();
+    private int withoutBirthday = 0;
+
+    /**
+     * Находит элементы, родившиеся в промежутке дат (границы включаются).
+     *
+     * @param from Первый день
+     * @param to Последний день
+     * @return Ключи найденных элементов в порядке дня рождения, при равных днях - в порядке ключей
+     */
+    public int[] bornBetween(LocalDate from, LocalDate to) {
+        return birthdays.range(from.toEpochDay(), to.toEpochDay());
+    }
+
+    /**
+     * Находит элементы, созданные не раньше заданного момента.
+     *
+     * @param since Начало промежутка
+     * @return Ключи найденных элементов в порядке даты создания, при равных датах - в порядке ключей
+     */
+    public int[] createdSince(LocalDateTime since) {
+        return creationDates.range(toMillis(since), Long.MAX_VALUE);
+    }
+
+    /**
+     * Возвращает количество элементов без дня рождения, которые не попадают в выборку по дню рождения.
+     *
+     * @return Количество элементов без дня рождения
+     */
+    public int getWithoutBirthday() {
+        return withoutBirthday;
+    }
+
+    @Override
+    protected void addElement(int key, Person person) {
+        if (person.getBirthday() != null) birthdays.add(person.getBirthday().toEpochDay(), key);
+        else withoutBirthday++;
+        if (person.getCreationDate() != null) creationDates.add(toMillis(person.getCreationDate()), key);
+    }
+
+    @Override
+    protected void removeElement(int key, Person person) {
+        if (person.getBirthday() != null) birthdays.remove(person.getBirthday().toEpochDay(), key);
+        else withoutBirthday--;
+        if (person.getCreationDate() != null) creationDates.remove(toMillis(person.getCreationDate()), key);
+    }
+
+    /**
+     * Строит индексы заново по всей коллекции: пары собираются в массивы
+     * и сортируются один раз, без вставки по одной.
+     *
+     * @param map Коллекция
+     */
+    @Override
+    protected void rebuild(PersonMap map) {
+        int size = map.size();
+        long[] days = new long[size];
+        int[] dayKeys = new int[size];
+        long[] millis = new long[size];
+        int[] millisKeys = new int[size];
+        int dayCount = 0;
+        int millisCount = 0;
+        PersonMap.Cursor cursor = map.cursor();
+        while (cursor.hasNext()) {
+            int key = cursor.nextKey();
+            Person person = cursor.value();
+            if (person.getBirthday() != null) {
+                days[dayCount] = person.getBirthday().toEpochDay();
+                dayKeys[dayCount++] = key;
+            }
+            else {
+                withoutBirthday++;
+            }
+            if (person.getCreationDate() != null) {
+                millis[millisCount] = toMillis(person.getCreationDate());
+                millisKeys[millisCount++] = key;
+            }
+        }
+        birthdays.rebuild(days, dayKeys, dayCount);
+        creationDates.rebuild(millis, millisKeys, millisCount);
+    }
+
+    @Override
+    protected void clear() {
+        birthdays.clear();
+        creationDates.clear();
+        withoutBirthday = 0;
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1000 + dateTime.getNano() / 1_000_000;
+    }
+}
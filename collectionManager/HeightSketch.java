@@ -0,0 +1,109 @@
+package collectionManager;
+
+import java.util.Arrays;
+
+/**
+ * Приближенное распределение роста для вычисления процентилей.
+ * Положительные значения раскладываются по корзинам, границы которых растут
+ * в геометрической прогрессии со знаменателем (1 + a) / (1 - a), где a - {@link #RELATIVE_ACCURACY}:
+ * в корзине i лежат значения из (g^(i-1), g^i]. Значение процентиля оценивается
+ * серединой его корзины и отличается от точного не больше чем на a от самого значения.
+ * Для всех значений int нужно немногим больше пятисот корзин, поэтому массив счетчиков
+ * создается один раз, а добавление и удаление значения стоят O(1).
+ * Счетчики можно вычитать, так что удаление не требует пересчета, и складывать:
+ * распределения, собранные отдельно, объединяются методом {@link #merge(HeightSketch)}.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class HeightSketch {
+    /**
+     * Наибольшая относительная погрешность оценки процентиля.
+     */
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final int BUCKETS = bucketOf(Integer.MAX_VALUE) + 1;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total = 0;
+
+    /**
+     * Добавляет значение. Неположительные значения учитываются в корзине единицы.
+     *
+     * @param value Значение
+     */
+    public void add(int value) {
+        counts[bucketOf(value)]++;
+        total++;
+    }
+
+    /**
+     * Удаляет ранее добавленное значение.
+     *
+     * @param value Значение
+     */
+    public void remove(int value) {
+        counts[bucketOf(value)]--;
+        total--;
+    }
+
+    /**
+     * Добавляет к распределению все значения другого распределения.
+     * Счетчики корзин складываются, поэтому результат совпадает с распределением,
+     * в которое все значения добавлены по одному.
+     *
+     * @param other Другое распределение
+     */
+    public void merge(HeightSketch other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+
+    /**
+     * Удаляет все значения.
+     */
+    public void clear() {
+        Arrays.fill(counts, 0);
+        total = 0;
+    }
+
+    /**
+     * Возвращает количество значений.
+     *
+     * @return Количество значений
+     */
+    public long getCount() {
+        return total;
+    }
+
+    /**
+     * Оценивает процентиль: значение, не больше которого доля q всех значений.
+     *
+     * @param q Доля от 0 до 1
+     * @return Оценка значения или NaN, если значений нет
+     */
+    public double quantile(double q) {
+        if (total == 0) return Double.NaN;
+        long rank = (long) Math.ceil(q * total);
+        if (rank < 1) rank = 1;
+        long seen = 0;
+        int bucket = 0;
+        while (bucket < BUCKETS - 1) {
+            seen += counts[bucket];
+            if (seen >= rank) break;
+            bucket++;
+        }
+        if (bucket == 0) return 1;
+        return 2 * Math.pow(GAMMA, bucket) / (GAMMA + 1);
+    }
+
+    private static int bucketOf(int value) {
+        if (value <= 1) return 0;
+        return (int) Math.ceil(Math.log(value) / LOG_GAMMA);
+    }
+}
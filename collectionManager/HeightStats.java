@@ -0,0 +1,162 @@
+package collectionManager;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import collection.Person;
+
+/**
+ * Статистика роста элементов коллекции.
+ * Количество, сумма, наименьшее и наибольшее значение и гистограмма считаются точно
+ * по счетчикам элементов каждого роста в TreeMap: памяти нужно столько, сколько
+ * в коллекции разных значений роста, изменение стоит O(log d), где d - их количество,
+ * а после удаления наименьшего или наибольшего роста следующее значение
+ * берется из карты без пересчета. Гистограмма строится одним проходом по карте.
+ * Процентили оцениваются по распределению {@link HeightSketch} с относительной
+ * погрешностью до {@link HeightSketch#RELATIVE_ACCURACY}: оно хранит счетчики
+ * фиксированного числа корзин, меняется за O(1) и объединяется с распределениями,
+ * собранными отдельно.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class HeightStats extends LazyIndex {
+    private final TreeMap<Integer, Integer> counts = new TreeMap<>();
+    private final HeightSketch sketch = new HeightSketch();
+    private int count = 0;
+    private long sum = 0;
+
+    /**
+     * Возвращает количество элементов.
+     *
+     * @return Количество элементов
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Возвращает сумму роста всех элементов.
+     *
+     * @return Сумма роста
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Возвращает наименьший рост.
+     *
+     * @return Наименьший рост или 0, если коллекция пуста
+     */
+    public int getMin() {
+        return count == 0 ? 0 : counts.firstKey();
+    }
+
+    /**
+     * Возвращает наибольший рост.
+     *
+     * @return Наибольший рост или 0, если коллекция пуста
+     */
+    public int getMax() {
+        return count == 0 ? 0 : counts.lastKey();
+    }
+
+    /**
+     * Оценивает процентиль роста. Оценка лежит между наименьшим и наибольшим ростом.
+     *
+     * @param q Доля от 0 до 1
+     * @return Оценка процентиля или NaN, если коллекция пуста
+     */
+    public double quantile(double q) {
+        if (count == 0) return Double.NaN;
+        return Math.max(getMin(), Math.min(getMax(), sketch.quantile(q)));
+    }
+
+    /**
+     * Считает количество элементов в равных интервалах роста от наименьшего до наибольшего.
+     * Интервал номер i содержит рост от min + i * width до min + (i + 1) * width - 1,
+     * где width - наименьшая целая ширина, при которой интервалы покрывают все значения.
+     *
+     * @param bins Наибольшее количество интервалов
+     * @return Количество элементов в каждом интервале; пустой массив, если коллекция пуста
+     */
+    public int[] histogram(int bins) {
+        if (count == 0) return new int[0];
+        long min = getMin();
+        long width = binWidth(min, getMax(), bins);
+        int[] histogram = new int[(int) ((getMax() - min) / width) + 1];
+        for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+            histogram[(int) ((entry.getKey() - min) / width)] += entry.getValue();
+        }
+        return histogram;
+    }
+
+    /**
+     * Возвращает ширину интервала гистограммы.
+     *
+     * @param min Наименьший рост
+     * @param max Наибольший рост
+     * @param bins Наибольшее количество интервалов
+     * @return Ширина интервала
+     */
+    public static long binWidth(long min, long max, int bins) {
+        long range = max - min + 1;
+        return (range + bins - 1) / bins;
+    }
+
+    @Override
+    protected void addElement(int key, Person person) {
+        int height = person.getHeight();
+        counts.merge(height, 1, Integer::sum);
+        sketch.add(height);
+        count++;
+        sum += height;
+    }
+
+    @Override
+    protected void removeElement(int key, Person person) {
+        int height = person.getHeight();
+        int number = counts.get(height);
+        if (number == 1) counts.remove(height);
+        else counts.put(height, number - 1);
+        sketch.remove(height);
+        count--;
+        sum -= height;
+    }
+
+    @Override
+    protected void clear() {
+        counts.clear();
+        sketch.clear();
+        count = 0;
+        sum = 0;
+    }
+
+    /**
+     * Строит статистику заново по всей коллекции: рост собирается в массив
+     * и сортируется один раз, и каждое значение попадает в карту один раз вместе
+     * с количеством, без поиска в карте для каждого элемента.
+     *
+     * @param map Коллекция
+     */
+    @Override
+    protected void rebuild(PersonMap map) {
+        int[] heights = new int[map.size()];
+        PersonMap.Cursor cursor = map.cursor();
+        while (cursor.hasNext()) {
+            cursor.nextKey();
+            int height = cursor.value().getHeight();
+            heights[count++] = height;
+            sketch.add(height);
+            sum += height;
+        }
+        Arrays.sort(heights, 0, count);
+        for (int from = 0, to = 0; from < count; from = to) {
+            while (to < count && heights[to] == heights[from]) to++;
+            counts.put(heights[from], to - from);
+        }
+    }
+}
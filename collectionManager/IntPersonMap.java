@@ -0,0 +1,269 @@
+package collectionManager;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import collection.Person;
+
+/**
+ * Хранилище коллекции на основе хеш-таблицы с открытой адресацией.
+ * Ключи хранятся в массиве int, значения - в параллельном массиве ссылок,
+ * поэтому на элемент не создаются ни объект Integer, ни узел списка, как в HashMap.
+ * Коллизии разрешаются линейным пробированием; при удалении следующие элементы
+ * цепочки сдвигаются назад, так что таблица не содержит "надгробий".
+ * 
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class IntPersonMap extends PersonMap {
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private int[] keys;
+    private Person[] values;
+    private int mask;
+    private int maxFill;
+    private int size = 0;
+
+    /**
+     * Создает пустое хранилище.
+     */
+    public IntPersonMap() {
+        this(0);
+    }
+
+    /**
+     * Создает пустое хранилище, рассчитанное на заданное количество элементов без расширения.
+     * 
+     * @param expectedSize Ожидаемое количество элементов
+     */
+    public IntPersonMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    private IntPersonMap(IntPersonMap other) {
+        keys = other.keys.clone();
+        values = other.values.clone();
+        mask = other.mask;
+        maxFill = other.maxFill;
+        size = other.size;
+    }
+
+    @Override
+    public PersonMap copy() {
+        return new IntPersonMap(this);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Person get(int key) {
+        for (int slot = hash(key) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) return values[slot];
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Person put(int key, Person person) {
+        if (person == null) throw new NullPointerException("Значение не может быть null");
+        int slot = hash(key) & mask;
+        for (; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                Person old = values[slot];
+                values[slot] = person;
+                return old;
+            }
+        }
+        keys[slot] = key;
+        values[slot] = person;
+        if (++size > maxFill) rehash(keys.length * 2);
+        return null;
+    }
+
+    @Override
+    public Person replaceIfGreater(int key, Person person) {
+        for (int slot = hash(key) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                Person old = values[slot];
+                if (person.compareTo(old) <= 0) return null;
+                values[slot] = person;
+                return old;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        if (expectedSize > maxFill) rehash(capacityFor(expectedSize));
+    }
+
+    @Override
+    public Person remove(int key) {
+        for (int slot = hash(key) & mask; values[slot] != null; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                Person old = values[slot];
+                size--;
+                shiftKeys(slot, null);
+                return old;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    @Override
+    public Cursor cursor() {
+        return new IntCursor();
+    }
+
+    /**
+     * Освобождает ячейку и сдвигает назад элементы цепочки, которые стоят
+     * дальше от своей начальной ячейки, чем освобожденная.
+     * 
+     * @param slot Освобождаемая ячейка
+     * @param cursor Курсор, который удаляет элемент, или null. Элементы, перенесенные
+     *               из еще не пройденной курсором части таблицы в пройденную, передаются курсору.
+     */
+    private void shiftKeys(int slot, IntCursor cursor) {
+        for (;;) {
+            int last = slot;
+            slot = (slot + 1) & mask;
+            for (;;) {
+                if (values[slot] == null) {
+                    values[last] = null;
+                    return;
+                }
+                int home = hash(keys[slot]) & mask;
+                if (last <= slot ? (last >= home || home > slot) : (last >= home && home > slot)) break;
+                slot = (slot + 1) & mask;
+            }
+            if (cursor != null && slot < last) cursor.addWrapped(keys[slot]);
+            keys[last] = keys[slot];
+            values[last] = values[slot];
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Person[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == null) continue;
+            int slot = hash(oldKeys[i]) & mask;
+            while (values[slot] != null) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Person[capacity];
+        mask = capacity - 1;
+        maxFill = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1;
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed && capacity < MAX_CAPACITY) capacity <<= 1;
+        return capacity;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Обход таблицы от последней ячейки к первой. Если удаление переносит элемент
+     * через конец таблицы в уже пройденную часть, его ключ запоминается
+     * и элемент выдается после окончания обхода таблицы.
+     */
+    private class IntCursor implements Cursor {
+        private int position = keys.length;
+        private int next = -1;
+        private int current = -1;
+        private int currentKey;
+        private Person currentValue;
+        private int[] wrapped;
+        private int wrappedSize = 0;
+        private int wrappedPosition = 0;
+        private boolean canRemove = false;
+
+        @Override
+        public boolean hasNext() {
+            if (next >= 0) return true;
+            while (position > 0) {
+                if (values[--position] != null) {
+                    next = position;
+                    return true;
+                }
+            }
+            return wrappedPosition < wrappedSize;
+        }
+
+        @Override
+        public int nextKey() {
+            if (!hasNext()) throw new NoSuchElementException();
+            canRemove = true;
+            if (next >= 0) {
+                current = next;
+                next = -1;
+                currentKey = keys[current];
+                currentValue = values[current];
+            }
+            else {
+                current = -1;
+                currentKey = wrapped[wrappedPosition++];
+                currentValue = get(currentKey);
+            }
+            return currentKey;
+        }
+
+        @Override
+        public Person value() {
+            return currentValue;
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) throw new IllegalStateException();
+            canRemove = false;
+            if (current < 0) {
+                IntPersonMap.this.remove(currentKey);
+                return;
+            }
+            if (next >= 0) {
+                position = next + 1;
+                next = -1;
+            }
+            size--;
+            shiftKeys(current, this);
+        }
+
+        private void addWrapped(int key) {
+            if (wrapped == null) wrapped = new int[4];
+            else if (wrappedSize == wrapped.length) wrapped = Arrays.copyOf(wrapped, wrappedSize * 2);
+            wrapped[wrappedSize++] = key;
+        }
+    }
+}
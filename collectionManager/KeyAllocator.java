@@ -0,0 +1,88 @@
+package collectionManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Выдает ключи для новых элементов коллекции.
+ * Ключи выдаются по возрастанию из окна свободных ключей [next, limit),
+ * в котором заведомо нет занятых ключей, поэтому новый элемент не может
+ * затереть существующий. Начало и конец окна хранятся в одном AtomicLong,
+ * так что ключ или диапазон ключей выдается без блокировки, одной операцией CAS.
+ * После загрузки коллекции окно начинается за наибольшим ключом; когда ключи
+ * до Integer.MAX_VALUE исчерпаны, CollectionManager назначает окном промежуток
+ * между занятыми ключами.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class KeyAllocator {
+
+    /**
+     * Наименьший выдаваемый ключ.
+     */
+    public static final int FIRST_KEY = 1;
+
+    private final AtomicLong window = new AtomicLong(pack(FIRST_KEY, Integer.MAX_VALUE));
+
+    /**
+     * Выдает диапазон подряд идущих свободных ключей.
+     *
+     * @param count Количество ключей
+     * @return Первый ключ диапазона или -1, если в окне не хватает ключей
+     */
+    public int reserve(int count) {
+        while (true) {
+            long state = window.get();
+            int next = next(state);
+            int limit = limit(state);
+            if (limit - next < count) return -1;
+            if (window.compareAndSet(state, pack(next + count, limit))) return next;
+        }
+    }
+
+    /**
+     * Учитывает ключ, занятый в обход распределителя (например, при применении журнала):
+     * если ключ попал в окно, окно сдвигается за него.
+     *
+     * @param key Занятый ключ
+     */
+    public void observe(int key) {
+        while (true) {
+            long state = window.get();
+            if (key < next(state) || key >= limit(state)) return;
+            if (window.compareAndSet(state, pack(key + 1, limit(state)))) return;
+        }
+    }
+
+    /**
+     * Возвращает ключ, который будет выдан следующим.
+     *
+     * @return Начало окна свободных ключей
+     */
+    public int peek() {
+        return next(window.get());
+    }
+
+    /**
+     * Назначает новое окно свободных ключей.
+     *
+     * @param next Первый свободный ключ
+     * @param limit Ключ, следующий за последним свободным
+     */
+    public void reset(int next, int limit) {
+        window.set(pack(Math.max(next, FIRST_KEY), limit));
+    }
+
+    private static long pack(int next, int limit) {
+        return ((long) next << 32) | (limit & 0xFFFFFFFFL);
+    }
+
+    private static int next(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int limit(long state) {
+        return (int) state;
+    }
+}
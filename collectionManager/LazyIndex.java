@@ -0,0 +1,87 @@
+package collectionManager;
+
+import java.util.Map;
+
+import collection.Person;
+
+/**
+ * Вторичный индекс коллекции, который обновляется при каждом изменении коллекции,
+ * а после замены всей коллекции строится заново только перед первым запросом.
+ * Коллекция, читаемая из файла по требованию, при загрузке не разбирается,
+ * поэтому загрузка не стоит ничего, пока индекс не нужен.
+ * Перед запросом вызывается {@link #prepare(PersonMap)} под блокировкой чтения CollectionManager:
+ * он синхронизирован, так как построение может начаться в нескольких читающих потоках сразу.
+ * Изменения приходят под блокировкой записи, поэтому сами запросы только читают индекс
+ * и не синхронизируются.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public abstract class LazyIndex implements ListenerInterface {
+    private boolean stale = false;
+
+    /**
+     * Строит индекс по текущей коллекции, если после замены коллекции он устарел.
+     *
+     * @param map Текущая коллекция
+     */
+    public synchronized void prepare(PersonMap map) {
+        if (!stale) return;
+        clear();
+        rebuild(map);
+        stale = false;
+    }
+
+    @Override
+    public final void onPut(int key, Person oldElement, Person newElement) {
+        if (stale) return;
+        if (oldElement != null) removeElement(key, oldElement);
+        addElement(key, newElement);
+    }
+
+    @Override
+    public final void onRemove(int key, Person oldElement) {
+        if (stale || oldElement == null) return;
+        removeElement(key, oldElement);
+    }
+
+    @Override
+    public final void onClear() {
+        clear();
+        stale = false;
+    }
+
+    @Override
+    public final void onLoad(Map<Integer, Person> map) {
+        stale = true;
+    }
+
+    /**
+     * Добавляет элемент в индекс.
+     *
+     * @param key Ключ элемента
+     * @param person Элемент
+     */
+    protected abstract void addElement(int key, Person person);
+
+    /**
+     * Удаляет элемент из индекса.
+     *
+     * @param key Ключ элемента
+     * @param person Удаляемое значение элемента
+     */
+    protected abstract void removeElement(int key, Person person);
+
+    /**
+     * Делает индекс пустым.
+     */
+    protected abstract void clear();
+
+    /**
+     * Строит пустой индекс по всей коллекции.
+     *
+     * @param map Коллекция
+     */
+    protected abstract void rebuild(PersonMap map);
+}
@@ -0,0 +1,44 @@
+package collectionManager;
+
+import java.util.Map;
+
+import collection.Person;
+
+/**
+ * Интерфейс для объектов, которые следят за изменениями коллекции.
+ * Методы вызываются CollectionManager после каждого изменения коллекции.
+ * 
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public interface ListenerInterface {
+    /**
+     * Вызывается после добавления или замены элемента.
+     * 
+     * @param key ключ элемента
+     * @param oldElement предыдущее значение или null, если элемента не было
+     * @param newElement новое значение
+     */
+    void onPut(int key, Person oldElement, Person newElement);
+
+    /**
+     * Вызывается после удаления элемента.
+     * 
+     * @param key ключ удаленного элемента
+     * @param oldElement удаленное значение
+     */
+    void onRemove(int key, Person oldElement);
+
+    /**
+     * Вызывается после очистки коллекции.
+     */
+    void onClear();
+
+    /**
+     * Вызывается после замены всей коллекции, например при чтении из файла.
+     * 
+     * @param map новая коллекция
+     */
+    void onLoad(Map<Integer, Person> map);
+}
@@ -0,0 +1,536 @@
+package collectionManager;
+
+import java.util.Arrays;
+
+import collection.Location;
+import collection.Person;
+
+/**
+ * Пространственный индекс элементов коллекции по локации (x, y, z) - октодерево.
+ * Корень дерева - куб, содержащий все локации; узел, в котором становится больше
+ * {@link #LEAF_CAPACITY} точек, делится пополам по каждой оси на восемь дочерних узлов. Точка вне корня
+ * достраивает над ним новый корень вдвое больше, а узел, в котором после удалений осталось
+ * мало точек, снова становится листом, поэтому дерево не требует перестройки при изменениях.
+ * Запрос по параллелепипеду или шару спускается только в узлы, которые пересекаются с областью.
+ * Элементы без локации в дерево не попадают и только подсчитываются; локации с бесконечной
+ * или неопределенной координатой Y хранятся отдельным списком и проверяются при каждом запросе.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class LocationOctree extends LazyIndex {
+    private static final int LEAF_CAPACITY = 32;
+    private static final int MAX_DEPTH = 64;
+
+    private Node root = null;
+    private Node unbounded = new Node(0, 0, 0, 0, 0, 0);
+    private int withoutLocation = 0;
+
+    /**
+     * Узел дерева - параллелепипед [minX, maxX) x [minY, maxY) x [minZ, maxZ), делящийся
+     * в точке (midX, midY, midZ). Лист хранит ключи и координаты своих точек в параллельных
+     * массивах, внутренний узел - восемь дочерних узлов, номер которых составлен из битов
+     * сторон по X, Y и Z. Границы дочернего узла копируются из границ и точки деления
+     * родителя, а не вычисляются заново, поэтому точка всегда лежит внутри границ своего узла.
+     */
+    private static class Node {
+        final double minX, maxX, minY, maxY, minZ, maxZ;
+        double midX, midY, midZ;
+        Node[] children = null;
+        int[] keys = new int[4];
+        long[] xs = new long[4];
+        float[] ys = new float[4];
+        int[] zs = new int[4];
+        int count = 0;
+        int total = 0;
+
+        Node(double minX, double maxX, double minY, double maxY, double minZ, double maxZ) {
+            this.minX = minX;
+            this.maxX = maxX;
+            this.minY = minY;
+            this.maxY = maxY;
+            this.minZ = minZ;
+            this.maxZ = maxZ;
+            midX = minX / 2 + maxX / 2;
+            midY = minY / 2 + maxY / 2;
+            midZ = minZ / 2 + maxZ / 2;
+        }
+
+        boolean isLeaf() {
+            return children == null;
+        }
+
+        boolean contains(double x, double y, double z) {
+            return x >= minX && x < maxX && y >= minY && y < maxY && z >= minZ && z < maxZ;
+        }
+
+        int octant(double x, double y, double z) {
+            return (x >= midX ? 1 : 0) | (y >= midY ? 2 : 0) | (z >= midZ ? 4 : 0);
+        }
+
+        Node child(int octant) {
+            Node child = children[octant];
+            if (child == null) {
+                boolean upperX = (octant & 1) != 0;
+                boolean upperY = (octant & 2) != 0;
+                boolean upperZ = (octant & 4) != 0;
+                child = new Node(upperX ? midX : minX, upperX ? maxX : midX, upperY ? midY : minY, upperY ? maxY : midY,
+                    upperZ ? midZ : minZ, upperZ ? maxZ : midZ);
+                children[octant] = child;
+            }
+            return child;
+        }
+
+        /**
+         * Делить узел дальше имеет смысл, пока точка деления лежит строго внутри него хотя бы по одной оси.
+         */
+        boolean canSplit(int depth) {
+            return depth < MAX_DEPTH && (midX > minX && midX < maxX || midY > minY && midY < maxY || midZ > minZ && midZ < maxZ);
+        }
+
+        void add(int key, long x, float y, int z) {
+            if (count == keys.length) {
+                int length = count * 2;
+                keys = Arrays.copyOf(keys, length);
+                xs = Arrays.copyOf(xs, length);
+                ys = Arrays.copyOf(ys, length);
+                zs = Arrays.copyOf(zs, length);
+            }
+            keys[count] = key;
+            xs[count] = x;
+            ys[count] = y;
+            zs[count] = z;
+            count++;
+            total++;
+        }
+
+        boolean remove(int key) {
+            for (int i = 0; i < count; i++) {
+                if (keys[i] != key) continue;
+                count--;
+                total--;
+                keys[i] = keys[count];
+                xs[i] = xs[count];
+                ys[i] = ys[count];
+                zs[i] = zs[count];
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Точки, найденные запросом.
+     */
+    private static class Found {
+        int[] keys = new int[16];
+        int count = 0;
+
+        void add(int key) {
+            if (count == keys.length) keys = Arrays.copyOf(keys, count * 2);
+            keys[count++] = key;
+        }
+
+        int[] sortedKeys() {
+            int[] result = Arrays.copyOf(keys, count);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+
+    /**
+     * Находит элементы, локация которых лежит в параллелепипеде (границы включаются).
+     *
+     * @param x1 Координата X одного угла
+     * @param y1 Координата Y одного угла
+     * @param z1 Координата Z одного угла
+     * @param x2 Координата X противоположного угла
+     * @param y2 Координата Y противоположного угла
+     * @param z2 Координата Z противоположного угла
+     * @return Ключи найденных элементов в порядке возрастания
+     */
+    public int[] inBox(double x1, double y1, double z1, double x2, double y2, double z2) {
+        Box box = new Box(Math.min(x1, x2), Math.min(y1, y2), Math.min(z1, z2), Math.max(x1, x2), Math.max(y1, y2), Math.max(z1, z2));
+        Found found = new Found();
+        if (root != null) box.search(root, found);
+        box.scan(unbounded, found);
+        return found.sortedKeys();
+    }
+
+    /**
+     * Находит элементы, локация которых удалена от точки не больше чем на радиус.
+     *
+     * @param x Координата X центра
+     * @param y Координата Y центра
+     * @param z Координата Z центра
+     * @param radius Радиус шара
+     * @return Ключи найденных элементов в порядке возрастания
+     */
+    public int[] inRadius(double x, double y, double z, double radius) {
+        Sphere sphere = new Sphere(x, y, z, radius);
+        Found found = new Found();
+        if (root != null) sphere.search(root, found);
+        sphere.scan(unbounded, found);
+        return found.sortedKeys();
+    }
+
+    /**
+     * Возвращает количество элементов без локации, которые не попадают ни в один запрос.
+     *
+     * @return Количество элементов без локации
+     */
+    public int getWithoutLocation() {
+        return withoutLocation;
+    }
+
+    /**
+     * Параллелепипед запроса.
+     */
+    private static class Box {
+        final double minX, minY, minZ, maxX, maxY, maxZ;
+
+        Box(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+            this.minX = minX;
+            this.minY = minY;
+            this.minZ = minZ;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.maxZ = maxZ;
+        }
+
+        void search(Node node, Found found) {
+            if (node.minX > maxX || node.maxX < minX || node.minY > maxY || node.maxY < minY || node.minZ > maxZ || node.maxZ < minZ) return;
+            if (node.isLeaf()) {
+                scan(node, found);
+                return;
+            }
+            for (Node child : node.children) {
+                if (child != null) search(child, found);
+            }
+        }
+
+        void scan(Node node, Found found) {
+            for (int i = 0; i < node.count; i++) {
+                double x = node.xs[i];
+                if (x >= minX && x <= maxX && node.ys[i] >= minY && node.ys[i] <= maxY && node.zs[i] >= minZ && node.zs[i] <= maxZ) {
+                    found.add(node.keys[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Шар запроса.
+     */
+    private static class Sphere {
+        final double x, y, z, radius;
+
+        Sphere(double x, double y, double z, double radius) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.radius = radius;
+        }
+
+        void search(Node node, Found found) {
+            double dx = Math.max(0, Math.max(node.minX - x, x - node.maxX));
+            double dy = Math.max(0, Math.max(node.minY - y, y - node.maxY));
+            double dz = Math.max(0, Math.max(node.minZ - z, z - node.maxZ));
+            if (dx * dx + dy * dy + dz * dz > radius * radius) return;
+            if (node.isLeaf()) {
+                scan(node, found);
+                return;
+            }
+            for (Node child : node.children) {
+                if (child != null) search(child, found);
+            }
+        }
+
+        void scan(Node node, Found found) {
+            for (int i = 0; i < node.count; i++) {
+                double dx = node.xs[i] - x;
+                double dy = node.ys[i] - y;
+                double dz = node.zs[i] - z;
+                if (dx * dx + dy * dy + dz * dz <= radius * radius) found.add(node.keys[i]);
+            }
+        }
+    }
+
+    @Override
+    protected void addElement(int key, Person person) {
+        add(key, person.getLocation());
+    }
+
+    @Override
+    protected void removeElement(int key, Person person) {
+        remove(key, person.getLocation());
+    }
+
+    @Override
+    protected void clear() {
+        root = null;
+        unbounded = new Node(0, 0, 0, 0, 0, 0);
+        withoutLocation = 0;
+    }
+
+    private void add(int key, Location location) {
+        if (location == null) {
+            withoutLocation++;
+            return;
+        }
+        long x = location.getX();
+        float y = location.getY();
+        int z = location.getZ();
+        if (!Float.isFinite(y)) {
+            unbounded.add(key, x, y, z);
+            return;
+        }
+        if (root == null) root = new Node(x, upper(x, x, 1), y, upper(y, y, 1), z, upper(z, z, 1));
+        while (!root.contains(x, y, z)) grow(x, y, z);
+        Node node = root;
+        int depth = 0;
+        while (!node.isLeaf()) {
+            node.total++;
+            node = node.child(node.octant(x, y, z));
+            depth++;
+        }
+        node.add(key, x, y, z);
+        if (node.count > LEAF_CAPACITY && node.canSplit(depth)) split(node, depth);
+    }
+
+    private void remove(int key, Location location) {
+        if (location == null) {
+            withoutLocation--;
+            return;
+        }
+        float y = location.getY();
+        if (!Float.isFinite(y)) {
+            unbounded.remove(key);
+            return;
+        }
+        if (root != null && root.contains(location.getX(), y, location.getZ()) && remove(root, key, location.getX(), y, location.getZ())) {
+            if (root.total == 0) root = null;
+        }
+    }
+
+    /**
+     * Удаляет точку из поддерева. Узел, в котором после удаления осталось
+     * не больше половины емкости листа, собирается обратно в лист.
+     *
+     * @return true, если точка была найдена
+     */
+    private boolean remove(Node node, int key, double x, double y, double z) {
+        if (node.isLeaf()) return node.remove(key);
+        Node child = node.children[node.octant(x, y, z)];
+        if (child == null || !remove(child, key, x, y, z)) return false;
+        node.total--;
+        if (node.total <= LEAF_CAPACITY / 2) collapse(node);
+        return true;
+    }
+
+    /**
+     * Достраивает над корнем новый корень вдвое больше в сторону точки.
+     * Точкой деления нового корня становятся углы старого, и старый корень
+     * без изменений становится его дочерним узлом.
+     */
+    private void grow(double x, double y, double z) {
+        Node old = root;
+        boolean lowerX = x < old.minX;
+        boolean lowerY = y < old.minY;
+        boolean lowerZ = z < old.minZ;
+        double width = old.maxX - old.minX;
+        double height = old.maxY - old.minY;
+        double depth = old.maxZ - old.minZ;
+        Node parent = new Node(lowerX ? old.minX - width : old.minX, lowerX ? old.maxX : old.maxX + width,
+            lowerY ? old.minY - height : old.minY, lowerY ? old.maxY : old.maxY + height,
+            lowerZ ? old.minZ - depth : old.minZ, lowerZ ? old.maxZ : old.maxZ + depth);
+        root = parent;
+        if (old.total == 0) return;
+        parent.midX = lowerX ? old.minX : old.maxX;
+        parent.midY = lowerY ? old.minY : old.maxY;
+        parent.midZ = lowerZ ? old.minZ : old.maxZ;
+        parent.children = new Node[8];
+        parent.children[(lowerX ? 1 : 0) | (lowerY ? 2 : 0) | (lowerZ ? 4 : 0)] = old;
+        parent.keys = null;
+        parent.xs = null;
+        parent.ys = null;
+        parent.zs = null;
+        parent.total = old.total;
+    }
+
+    /**
+     * Делит лист на восемь кубов и раскладывает по ним его точки.
+     */
+    private void split(Node node, int depth) {
+        int[] keys = node.keys;
+        long[] xs = node.xs;
+        float[] ys = node.ys;
+        int[] zs = node.zs;
+        int count = node.count;
+        node.children = new Node[8];
+        node.keys = null;
+        node.xs = null;
+        node.ys = null;
+        node.zs = null;
+        node.count = 0;
+        for (int i = 0; i < count; i++) {
+            Node child = node.child(node.octant(xs[i], ys[i], zs[i]));
+            child.add(keys[i], xs[i], ys[i], zs[i]);
+        }
+        for (Node child : node.children) {
+            if (child != null && child.count > LEAF_CAPACITY && child.canSplit(depth + 1)) split(child, depth + 1);
+        }
+    }
+
+    /**
+     * Собирает точки поддерева в сам узел, делая его листом.
+     */
+    private void collapse(Node node) {
+        Node leaf = new Node(node.minX, node.maxX, node.minY, node.maxY, node.minZ, node.maxZ);
+        gather(node, leaf);
+        node.children = null;
+        node.keys = leaf.keys;
+        node.xs = leaf.xs;
+        node.ys = leaf.ys;
+        node.zs = leaf.zs;
+        node.count = leaf.count;
+    }
+
+    private void gather(Node node, Node leaf) {
+        if (node.isLeaf()) {
+            for (int i = 0; i < node.count; i++) {
+                leaf.add(node.keys[i], node.xs[i], node.ys[i], node.zs[i]);
+            }
+            return;
+        }
+        for (Node child : node.children) {
+            if (child != null) gather(child, leaf);
+        }
+    }
+
+    /**
+     * Строит дерево заново по всей коллекции: точки собираются в массивы,
+     * корень выбирается по области, занятой локациями, и точки раскладываются
+     * по кубам сразу, без вставки по одной.
+     *
+     * @param map Коллекция
+     */
+    @Override
+    protected void rebuild(PersonMap map) {
+        int size = map.size();
+        int[] keys = new int[size];
+        long[] xs = new long[size];
+        float[] ys = new float[size];
+        int[] zs = new int[size];
+        int count = 0;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double minZ = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        double maxZ = Double.NEGATIVE_INFINITY;
+        PersonMap.Cursor cursor = map.cursor();
+        while (cursor.hasNext()) {
+            int key = cursor.nextKey();
+            Location location = cursor.value().getLocation();
+            if (location == null || !Float.isFinite(location.getY())) {
+                add(key, location);
+                continue;
+            }
+            keys[count] = key;
+            xs[count] = location.getX();
+            ys[count] = location.getY();
+            zs[count] = location.getZ();
+            minX = Math.min(minX, xs[count]);
+            minY = Math.min(minY, ys[count]);
+            minZ = Math.min(minZ, zs[count]);
+            maxX = Math.max(maxX, xs[count]);
+            maxY = Math.max(maxY, ys[count]);
+            maxZ = Math.max(maxZ, zs[count]);
+            count++;
+        }
+        if (count == 0) return;
+        double side = Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ));
+        side = side > 0 ? side * 2 : 1;
+        root = new Node(minX, upper(minX, maxX, side), minY, upper(minY, maxY, side), minZ, upper(minZ, maxZ, side));
+        int[] octants = new int[count];
+        build(root, 0, keys, xs, ys, zs, octants, 0, count, new int[9]);
+    }
+
+    /**
+     * Раскладывает точки диапазона [from, to) массивов по поддереву узла.
+     * Точки переставляются в массивах по номерам дочерних кубов подсчетом,
+     * после чего каждый куб строится по своему непрерывному диапазону.
+     */
+    private void build(Node node, int depth, int[] keys, long[] xs, float[] ys, int[] zs, int[] octants, int from, int to, int[] bounds) {
+        int count = to - from;
+        if (count <= LEAF_CAPACITY || !node.canSplit(depth)) {
+            node.keys = Arrays.copyOfRange(keys, from, to);
+            node.xs = Arrays.copyOfRange(xs, from, to);
+            node.ys = Arrays.copyOfRange(ys, from, to);
+            node.zs = Arrays.copyOfRange(zs, from, to);
+            node.count = count;
+            node.total = count;
+            return;
+        }
+        node.children = new Node[8];
+        node.keys = null;
+        node.xs = null;
+        node.ys = null;
+        node.zs = null;
+        node.total = count;
+        Arrays.fill(bounds, 0);
+        for (int i = from; i < to; i++) {
+            octants[i] = node.octant(xs[i], ys[i], zs[i]);
+            bounds[octants[i] + 1]++;
+        }
+        bounds[0] = from;
+        for (int octant = 1; octant <= 8; octant++) bounds[octant] += bounds[octant - 1];
+        int[] next = Arrays.copyOf(bounds, 8);
+        for (int octant = 0; octant < 8; octant++) {
+            while (next[octant] < bounds[octant + 1]) {
+                int i = next[octant];
+                int target = octants[i];
+                if (target == octant) {
+                    next[octant]++;
+                    continue;
+                }
+                int j = next[target]++;
+                swap(keys, xs, ys, zs, octants, i, j);
+            }
+        }
+        int[] starts = Arrays.copyOf(bounds, 9);
+        for (int octant = 0; octant < 8; octant++) {
+            if (starts[octant] == starts[octant + 1]) continue;
+            build(node.child(octant), depth + 1, keys, xs, ys, zs, octants, starts[octant], starts[octant + 1], bounds);
+        }
+    }
+
+    /**
+     * Возвращает верхнюю границу оси длиной side, начинающейся с min, но не меньше
+     * следующего за max числа: для больших координат прибавление стороны может не изменить число.
+     */
+    private static double upper(double min, double max, double side) {
+        double upper = min + side;
+        return upper > max ? upper : Math.nextUp(max);
+    }
+
+    private static void swap(int[] keys, long[] xs, float[] ys, int[] zs, int[] octants, int i, int j) {
+        int key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        long x = xs[i];
+        xs[i] = xs[j];
+        xs[j] = x;
+        float y = ys[i];
+        ys[i] = ys[j];
+        ys[j] = y;
+        int z = zs[i];
+        zs[i] = zs[j];
+        zs[j] = z;
+        int octant = octants[i];
+        octants[i] = octants[j];
+        octants[j] = octant;
+    }
+}
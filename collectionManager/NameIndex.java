@@ -0,0 +1,346 @@
+package collectionManager;
+
+import java.util.Arrays;
+
+import collection.Person;
+
+/**
+ * Индекс элементов коллекции по имени - сжатое префиксное дерево (radix-дерево).
+ * Путь от корня до узла читается как имя; у каждого узла хранится упорядоченный
+ * массив ключей людей с этим именем. Цепочки узлов с одним потомком и без ключей
+ * сливаются в одно ребро, поэтому узлов не больше, чем вдвое больше различных имен.
+ * Метки ребер хранятся в одном общем массиве символов: узел хранит только начало
+ * и длину своей метки в нем. Поэтому индекс не держит ссылок на строки коллекции,
+ * которые при хранении вне кучи создаются заново при каждом чтении, а символы
+ * каждого имени копируются в массив один раз. Помимо символов на каждое различное
+ * имя приходится узел с массивами потомков и ключей - несколько десятков байт кучи
+ * при любом способе хранения коллекции. Метки удаленных узлов остаются в массиве,
+ * пока их не станет больше, чем используемых символов; тогда массив уплотняется.
+ * Поиск по имени проходит столько символов, сколько в имени, поиск по префиксу -
+ * символы префикса и поддерево под ним, то есть время пропорционально длине префикса
+ * и количеству найденных элементов, а не размеру коллекции.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class NameIndex extends LazyIndex {
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final char[] NO_FIRSTS = new char[0];
+    private static final int[] NO_KEYS = new int[0];
+    private static final int MIN_COMPACT_SIZE = 1024;
+
+    private Node root = new Node(0, 0);
+    private char[] labels = new char[16];
+    private int used = 0;
+    private int garbage = 0;
+
+    /**
+     * Узел дерева. Метка ребра, ведущего в узел, - length символов общего массива,
+     * начиная с start. Потомки упорядочены по первому символу метки;
+     * первые символы хранятся отдельным массивом, чтобы при поиске потомка
+     * не обращаться к узлам и меткам, которые не подходят.
+     */
+    private static class Node {
+        int start;
+        int length;
+        Node[] children = NO_CHILDREN;
+        char[] firsts = NO_FIRSTS;
+        int childCount = 0;
+        int[] keys = NO_KEYS;
+        int count = 0;
+
+        Node(int start, int length) {
+            this.start = start;
+            this.length = length;
+        }
+
+        /**
+         * Возвращает позицию потомка, метка которого начинается с символа,
+         * или (-(позиция вставки) - 1), если такого потомка нет.
+         */
+        int find(char c) {
+            int low = 0;
+            int high = childCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char first = firsts[mid];
+                if (first < c) low = mid + 1;
+                else if (first > c) high = mid - 1;
+                else return mid;
+            }
+            return -(low + 1);
+        }
+
+        Node child(char c) {
+            int i = find(c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        void insertChild(int position, Node child, char first) {
+            if (childCount == children.length) {
+                children = Arrays.copyOf(children, Math.max(2, childCount * 2));
+                firsts = Arrays.copyOf(firsts, children.length);
+            }
+            System.arraycopy(children, position, children, position + 1, childCount - position);
+            System.arraycopy(firsts, position, firsts, position + 1, childCount - position);
+            children[position] = child;
+            firsts[position] = first;
+            childCount++;
+        }
+
+        void removeChild(int position) {
+            childCount--;
+            System.arraycopy(children, position + 1, children, position, childCount - position);
+            System.arraycopy(firsts, position + 1, firsts, position, childCount - position);
+            children[childCount] = null;
+        }
+
+        /**
+         * Добавляет ключ, сохраняя порядок. Новые ключи обычно больше всех прежних
+         * и дописываются в конец.
+         */
+        void addKey(int key) {
+            int position = count > 0 && keys[count - 1] < key ? count : Arrays.binarySearch(keys, 0, count, key);
+            if (position >= 0 && position < count) return;
+            if (position < 0) position = -position - 1;
+            if (count == keys.length) keys = Arrays.copyOf(keys, Math.max(1, count * 2));
+            System.arraycopy(keys, position, keys, position + 1, count - position);
+            keys[position] = key;
+            count++;
+        }
+
+        boolean removeKey(int key) {
+            int position = Arrays.binarySearch(keys, 0, count, key);
+            if (position < 0) return false;
+            count--;
+            System.arraycopy(keys, position + 1, keys, position, count - position);
+            if (count == 0) keys = NO_KEYS;
+            else if (count <= keys.length / 4) keys = Arrays.copyOf(keys, count * 2);
+            return true;
+        }
+    }
+
+    /**
+     * Найденные ключи.
+     */
+    private static class Found {
+        int[] keys = new int[16];
+        int count = 0;
+
+        void add(int[] source, int length) {
+            if (count + length > keys.length) keys = Arrays.copyOf(keys, Math.max(keys.length * 2, count + length));
+            System.arraycopy(source, 0, keys, count, length);
+            count += length;
+        }
+    }
+
+    /**
+     * Находит элементы с заданным именем.
+     *
+     * @param name Имя
+     * @return Ключи найденных элементов в порядке возрастания
+     */
+    public int[] findName(String name) {
+        Node node = root;
+        int position = 0;
+        while (position < name.length()) {
+            node = node.child(name.charAt(position));
+            if (node == null || node.length > name.length() - position
+                    || !matches(name, position, node, node.length)) return NO_KEYS;
+            position += node.length;
+        }
+        return Arrays.copyOf(node.keys, node.count);
+    }
+
+    /**
+     * Находит элементы, имя которых начинается с префикса.
+     *
+     * @param prefix Префикс имени
+     * @return Ключи найденных элементов: по алфавиту имен, с одним именем - в порядке возрастания
+     */
+    public int[] findPrefix(String prefix) {
+        Node node = root;
+        int position = 0;
+        while (position < prefix.length()) {
+            node = node.child(prefix.charAt(position));
+            int length = Math.min(node == null ? 0 : node.length, prefix.length() - position);
+            if (node == null || !matches(prefix, position, node, length)) return NO_KEYS;
+            position += length;
+        }
+        Found found = new Found();
+        collect(node, found);
+        return Arrays.copyOf(found.keys, found.count);
+    }
+
+    /**
+     * Сравнивает length символов строки, начиная с position, с началом метки узла.
+     */
+    private boolean matches(String name, int position, Node node, int length) {
+        for (int i = 0; i < length; i++) {
+            if (labels[node.start + i] != name.charAt(position + i)) return false;
+        }
+        return true;
+    }
+
+    private void collect(Node node, Found found) {
+        found.add(node.keys, node.count);
+        for (int i = 0; i < node.childCount; i++) {
+            collect(node.children[i], found);
+        }
+    }
+
+    @Override
+    protected void addElement(int key, Person person) {
+        add(key, person.getName());
+    }
+
+    @Override
+    protected void removeElement(int key, Person person) {
+        remove(key, person.getName());
+    }
+
+    @Override
+    protected void clear() {
+        root = new Node(0, 0);
+        labels = new char[16];
+        used = 0;
+        garbage = 0;
+    }
+
+    private void add(int key, String name) {
+        if (name == null) return;
+        Node node = root;
+        int position = 0;
+        while (position < name.length()) {
+            int i = node.find(name.charAt(position));
+            if (i < 0) {
+                Node leaf = new Node(append(name, position), name.length() - position);
+                node.insertChild(-i - 1, leaf, name.charAt(position));
+                node = leaf;
+                break;
+            }
+            Node child = node.children[i];
+            int common = 1;
+            int length = Math.min(child.length, name.length() - position);
+            while (common < length && labels[child.start + common] == name.charAt(position + common)) common++;
+            if (common < child.length) {
+                Node middle = new Node(child.start, common);
+                child.start += common;
+                child.length -= common;
+                middle.insertChild(0, child, labels[child.start]);
+                node.children[i] = middle;
+                child = middle;
+            }
+            node = child;
+            position += common;
+        }
+        node.addKey(key);
+    }
+
+    private void remove(int key, String name) {
+        if (name == null) return;
+        Node parent = null;
+        int parentPosition = -1;
+        Node node = root;
+        int position = 0;
+        while (position < name.length()) {
+            int i = node.find(name.charAt(position));
+            if (i < 0) return;
+            Node child = node.children[i];
+            if (child.length > name.length() - position
+                    || !matches(name, position, child, child.length)) return;
+            parent = node;
+            parentPosition = i;
+            node = child;
+            position += child.length;
+        }
+        if (!node.removeKey(key) || node == root || node.count > 0) return;
+        if (node.childCount == 0) {
+            parent.removeChild(parentPosition);
+            garbage += node.length;
+            if (parent != root && parent.count == 0 && parent.childCount == 1) merge(parent);
+        }
+        else if (node.childCount == 1) {
+            merge(node);
+        }
+        if (garbage > used - garbage && used >= MIN_COMPACT_SIZE) compact();
+    }
+
+    /**
+     * Сливает узел без ключей с его единственным потомком: узел получает
+     * потомков и ключи потомка, а его метка продлевается меткой потомка.
+     * Если метка потомка лежит в массиве сразу за меткой узла (так бывает после
+     * разделения ребра), символы не копируются, иначе объединенная метка
+     * дописывается в конец массива.
+     */
+    private void merge(Node node) {
+        Node child = node.children[0];
+        if (node.start + node.length != child.start) {
+            int start = used;
+            reserve(node.length + child.length);
+            System.arraycopy(labels, node.start, labels, start, node.length);
+            System.arraycopy(labels, child.start, labels, start + node.length, child.length);
+            used += node.length + child.length;
+            garbage += node.length + child.length;
+            node.start = start;
+        }
+        node.length += child.length;
+        node.children = child.children;
+        node.firsts = child.firsts;
+        node.childCount = child.childCount;
+        node.keys = child.keys;
+        node.count = child.count;
+    }
+
+    /**
+     * Дописывает символы имени, начиная с position, в конец общего массива.
+     *
+     * @return Начало дописанных символов
+     */
+    private int append(String name, int position) {
+        int length = name.length() - position;
+        reserve(length);
+        name.getChars(position, name.length(), labels, used);
+        used += length;
+        return used - length;
+    }
+
+    private void reserve(int length) {
+        if (used + length > labels.length) labels = Arrays.copyOf(labels, Math.max(labels.length * 2, used + length));
+    }
+
+    /**
+     * Переносит метки всех узлов в новый массив без меток удаленных узлов.
+     */
+    private void compact() {
+        char[] old = labels;
+        labels = new char[Math.max(16, (used - garbage) * 2)];
+        used = 0;
+        garbage = 0;
+        move(root, old);
+    }
+
+    private void move(Node node, char[] old) {
+        System.arraycopy(old, node.start, labels, used, node.length);
+        node.start = used;
+        used += node.length;
+        for (int i = 0; i < node.childCount; i++) {
+            move(node.children[i], old);
+        }
+    }
+
+    /**
+     * Строит индекс заново по всей коллекции.
+     *
+     * @param map Коллекция
+     */
+    @Override
+    protected void rebuild(PersonMap map) {
+        PersonMap.Cursor cursor = map.cursor();
+        while (cursor.hasNext()) {
+            int key = cursor.nextKey();
+            add(key, cursor.value().getName());
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package collectionManager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import collection.ColorEye;
+import collection.ColorHair;
+import collection.Coordinates;
+import collection.Location;
+import collection.Person;
+
+/**
+ * Хранилище коллекции вне кучи Java.
+ * Каждый элемент хранится записью фиксированной длины в прямых буферах
+ * (ByteBuffer.allocateDirect), строки - в UTF-8 в отдельной области строк,
+ * а запись содержит только их положение и длину. Сборщик мусора видит лишь
+ * несколько буферов и массивы индекса, а не объекты каждого элемента,
+ * поэтому размер коллекции почти не влияет на паузы сборки мусора.
+ * Объект Person создается при каждом обращении к элементу, как в {@link ColumnarPersonMap}.
+ * Объем памяти вне кучи ограничен параметром JVM -XX:MaxDirectMemorySize
+ * (по умолчанию равен наибольшему размеру кучи).
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class OffHeapPersonMap extends RowPersonMap {
+
+    private static final int COORDINATE_X = 0;
+    private static final int COORDINATE_Y = 4;
+    private static final int CREATION_SECONDS = 12;
+    private static final int CREATION_NANOS = 20;
+    private static final int HEIGHT = 24;
+    private static final int BIRTHDAY = 28;
+    private static final int EYE_COLOR = 36;
+    private static final int HAIR_COLOR = 37;
+    private static final int HAS_LOCATION = 38;
+    private static final int LOCATION_X = 40;
+    private static final int LOCATION_Y = 48;
+    private static final int LOCATION_Z = 52;
+    private static final int NAME_REF = 56;
+    private static final int NAME_LENGTH = 64;
+    private static final int LOCATION_NAME_LENGTH = 68;
+    private static final int LOCATION_NAME_REF = 72;
+
+    /**
+     * Длина записи одного элемента в байтах.
+     */
+    private static final int RECORD_SIZE = 80;
+
+    /**
+     * Количество записей в одном буфере: 2^16 записей, около 5 МБ.
+     */
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_ROWS - 1;
+
+    private static final long NO_BIRTHDAY = Long.MIN_VALUE;
+    private static final byte NO_COLOR = -1;
+
+    private static final ColorEye[] EYE_COLORS = ColorEye.values();
+    private static final ColorHair[] HAIR_COLORS = ColorHair.values();
+
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    private StringArena strings = new StringArena();
+
+    /**
+     * Создает пустое хранилище.
+     */
+    public OffHeapPersonMap() {
+        this(0);
+    }
+
+    /**
+     * Создает пустое хранилище, рассчитанное на заданное количество элементов без расширения.
+     *
+     * @param expectedSize Ожидаемое количество элементов
+     */
+    public OffHeapPersonMap(int expectedSize) {
+        super(expectedSize);
+        resizeRows(capacity());
+    }
+
+    private OffHeapPersonMap(OffHeapPersonMap other) {
+        super(other);
+        chunks = new ByteBuffer[other.chunks.length];
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = copyOf(other.chunks[i], other.chunks[i].capacity());
+        }
+        strings = other.strings.copy();
+    }
+
+    @Override
+    public PersonMap copy() {
+        return new OffHeapPersonMap(this);
+    }
+
+    @Override
+    protected Person readRow(int row) {
+        ByteBuffer chunk = chunks[row >>> CHUNK_SHIFT];
+        int base = (row & CHUNK_MASK) * RECORD_SIZE;
+        Coordinates coordinates = new Coordinates(chunk.getFloat(base + COORDINATE_X), chunk.getLong(base + COORDINATE_Y));
+        LocalDateTime creationDate = LocalDateTime.ofEpochSecond(chunk.getLong(base + CREATION_SECONDS),
+            chunk.getInt(base + CREATION_NANOS), ZoneOffset.UTC);
+        String name = strings.get(chunk.getLong(base + NAME_REF), chunk.getInt(base + NAME_LENGTH));
+        Person person = new Person(name, coordinates, creationDate, chunk.getInt(base + HEIGHT), null, null, null, null);
+
+        long birthday = chunk.getLong(base + BIRTHDAY);
+        if (birthday != NO_BIRTHDAY) person.setBirthday(LocalDate.ofEpochDay(birthday));
+        byte eyeColor = chunk.get(base + EYE_COLOR);
+        if (eyeColor != NO_COLOR) person.setEyeColor(EYE_COLORS[eyeColor]);
+        byte hairColor = chunk.get(base + HAIR_COLOR);
+        if (hairColor != NO_COLOR) person.setHairColor(HAIR_COLORS[hairColor]);
+        if (chunk.get(base + HAS_LOCATION) != 0) {
+            String locationName = strings.get(chunk.getLong(base + LOCATION_NAME_REF), chunk.getInt(base + LOCATION_NAME_LENGTH));
+            person.setLocation(new Location(chunk.getLong(base + LOCATION_X), chunk.getFloat(base + LOCATION_Y),
+                chunk.getInt(base + LOCATION_Z), locationName));
+        }
+        return person;
+    }
+
+    @Override
+    protected void writeRow(int row, Person person, boolean replace) {
+        if (replace) releaseRow(row);
+        ByteBuffer chunk = chunks[row >>> CHUNK_SHIFT];
+        int base = (row & CHUNK_MASK) * RECORD_SIZE;
+        chunk.putFloat(base + COORDINATE_X, person.getCoordinates().getX());
+        chunk.putLong(base + COORDINATE_Y, person.getCoordinates().getY());
+        chunk.putLong(base + CREATION_SECONDS, person.getCreationDate().toEpochSecond(ZoneOffset.UTC));
+        chunk.putInt(base + CREATION_NANOS, person.getCreationDate().getNano());
+        chunk.putInt(base + HEIGHT, person.getHeight());
+        chunk.putLong(base + BIRTHDAY, person.getBirthday() == null ? NO_BIRTHDAY : person.getBirthday().toEpochDay());
+        chunk.put(base + EYE_COLOR, person.getEyeColor() == null ? NO_COLOR : (byte) person.getEyeColor().ordinal());
+        chunk.put(base + HAIR_COLOR, person.getHairColor() == null ? NO_COLOR : (byte) person.getHairColor().ordinal());
+
+        byte[] name = person.getName().getBytes(StandardCharsets.UTF_8);
+        chunk.putLong(base + NAME_REF, strings.add(name));
+        chunk.putInt(base + NAME_LENGTH, name.length);
+
+        Location location = person.getLocation();
+        chunk.put(base + HAS_LOCATION, (byte) (location == null ? 0 : 1));
+        if (location != null) {
+            chunk.putLong(base + LOCATION_X, location.getX());
+            chunk.putFloat(base + LOCATION_Y, location.getY());
+            chunk.putInt(base + LOCATION_Z, location.getZ());
+            byte[] locationName = location.getName().getBytes(StandardCharsets.UTF_8);
+            chunk.putLong(base + LOCATION_NAME_REF, strings.add(locationName));
+            chunk.putInt(base + LOCATION_NAME_LENGTH, locationName.length);
+        }
+        if (strings.needsCompaction()) compactStrings();
+    }
+
+    @Override
+    protected void moveRow(int from, int to) {
+        ByteBuffer source = chunks[from >>> CHUNK_SHIFT];
+        ByteBuffer target = chunks[to >>> CHUNK_SHIFT];
+        target.put((to & CHUNK_MASK) * RECORD_SIZE, source, (from & CHUNK_MASK) * RECORD_SIZE, RECORD_SIZE);
+    }
+
+    @Override
+    protected void releaseRow(int row) {
+        ByteBuffer chunk = chunks[row >>> CHUNK_SHIFT];
+        int base = (row & CHUNK_MASK) * RECORD_SIZE;
+        strings.free(chunk.getInt(base + NAME_LENGTH));
+        if (chunk.get(base + HAS_LOCATION) != 0) strings.free(chunk.getInt(base + LOCATION_NAME_LENGTH));
+    }
+
+    @Override
+    protected void releaseRows(int count) {
+        strings = new StringArena();
+    }
+
+    /**
+     * Выделяет буферы под записи. Пока записей меньше, чем помещается в один буфер,
+     * буфер заменяется большим; дальше добавляются новые буферы полного размера.
+     *
+     * @param capacity Новое количество записей
+     */
+    @Override
+    protected void resizeRows(int capacity) {
+        if (capacity <= CHUNK_ROWS) {
+            ByteBuffer chunk = chunks.length == 0 ? ByteBuffer.allocateDirect(capacity * RECORD_SIZE)
+                : copyOf(chunks[0], capacity * RECORD_SIZE);
+            chunks = new ByteBuffer[] {chunk};
+            return;
+        }
+        int count = (capacity + CHUNK_ROWS - 1) >>> CHUNK_SHIFT;
+        if (chunks.length > 0 && chunks[0].capacity() < CHUNK_ROWS * RECORD_SIZE) {
+            chunks[0] = copyOf(chunks[0], CHUNK_ROWS * RECORD_SIZE);
+        }
+        int old = chunks.length;
+        chunks = Arrays.copyOf(chunks, count);
+        for (int i = old; i < count; i++) {
+            chunks[i] = ByteBuffer.allocateDirect(CHUNK_ROWS * RECORD_SIZE);
+        }
+    }
+
+    /**
+     * Переписывает строки всех элементов в новую область строк,
+     * освобождая место, занятое строками удаленных и замененных элементов.
+     */
+    private void compactStrings() {
+        StringArena compacted = new StringArena();
+        int size = size();
+        for (int row = 0; row < size; row++) {
+            ByteBuffer chunk = chunks[row >>> CHUNK_SHIFT];
+            int base = (row & CHUNK_MASK) * RECORD_SIZE;
+            chunk.putLong(base + NAME_REF, compacted.move(strings, chunk.getLong(base + NAME_REF), chunk.getInt(base + NAME_LENGTH)));
+            if (chunk.get(base + HAS_LOCATION) != 0) {
+                chunk.putLong(base + LOCATION_NAME_REF,
+                    compacted.move(strings, chunk.getLong(base + LOCATION_NAME_REF), chunk.getInt(base + LOCATION_NAME_LENGTH)));
+            }
+        }
+        strings = compacted;
+    }
+
+    private static ByteBuffer copyOf(ByteBuffer source, int capacity) {
+        ByteBuffer copy = ByteBuffer.allocateDirect(capacity);
+        copy.put(0, source, 0, Math.min(source.capacity(), capacity));
+        return copy;
+    }
+
+    /**
+     * Область строк вне кучи. Строки дописываются подряд в буферы по 1 МБ
+     * (более длинная строка получает отдельный буфер своего размера) и не удаляются;
+     * объем освобожденных строк учитывается, и когда он превышает половину области,
+     * владелец переписывает живые строки в новую область.
+     * Положение строки кодируется номером буфера в старших 32 битах и смещением в младших.
+     */
+    private static class StringArena {
+        private static final int CHUNK_SIZE = 1 << 20;
+
+        private ByteBuffer[] chunks = new ByteBuffer[0];
+        private long used = 0;
+        private long garbage = 0;
+
+        /**
+         * Добавляет строку.
+         *
+         * @param bytes Строка в UTF-8
+         * @return Положение строки
+         */
+        long add(byte[] bytes) {
+            ByteBuffer chunk = reserve(bytes.length);
+            long ref = ((long) (chunks.length - 1) << 32) | chunk.position();
+            chunk.put(bytes);
+            used += bytes.length;
+            return ref;
+        }
+
+        /**
+         * Копирует строку из другой области.
+         *
+         * @param source Область, в которой лежит строка
+         * @param ref Положение строки в этой области
+         * @param length Длина строки в байтах
+         * @return Положение строки в этой области
+         */
+        long move(StringArena source, long ref, int length) {
+            ByteBuffer chunk = reserve(length);
+            long moved = ((long) (chunks.length - 1) << 32) | chunk.position();
+            chunk.put(chunk.position(), source.chunks[(int) (ref >>> 32)], (int) ref, length);
+            chunk.position(chunk.position() + length);
+            used += length;
+            return moved;
+        }
+
+        /**
+         * Читает строку.
+         *
+         * @param ref Положение строки
+         * @param length Длина строки в байтах
+         * @return Строка
+         */
+        String get(long ref, int length) {
+            byte[] bytes = new byte[length];
+            chunks[(int) (ref >>> 32)].get((int) ref, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Учитывает освобожденную строку.
+         *
+         * @param length Длина строки в байтах
+         */
+        void free(int length) {
+            garbage += length;
+        }
+
+        /**
+         * Проверяет, занимают ли освобожденные строки больше половины области.
+         *
+         * @return true если область стоит переписать
+         */
+        boolean needsCompaction() {
+            return garbage > CHUNK_SIZE && garbage * 2 > used;
+        }
+
+        /**
+         * Создает копию области.
+         *
+         * @return Копия
+         */
+        StringArena copy() {
+            StringArena copy = new StringArena();
+            copy.chunks = new ByteBuffer[chunks.length];
+            for (int i = 0; i < chunks.length; i++) {
+                copy.chunks[i] = copyOf(chunks[i], chunks[i].capacity());
+                copy.chunks[i].position(chunks[i].position());
+            }
+            copy.used = used;
+            copy.garbage = garbage;
+            return copy;
+        }
+
+        /**
+         * Возвращает буфер, в котором есть место под строку заданной длины.
+         */
+        private ByteBuffer reserve(int length) {
+            ByteBuffer last = chunks.length == 0 ? null : chunks[chunks.length - 1];
+            if (last == null || last.remaining() < length) {
+                chunks = Arrays.copyOf(chunks, chunks.length + 1);
+                last = ByteBuffer.allocateDirect(Math.max(CHUNK_SIZE, length));
+                chunks[chunks.length - 1] = last;
+            }
+            return last;
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package collectionManager;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import collection.Person;
+
+/**
+ * Базовый класс для хранилищ коллекции с ключами типа int.
+ * Хранилище реализует примитивный интерфейс (методы с ключом int и обход через {@link Cursor}),
+ * а методы интерфейса Map выражены через него, поэтому хранилище можно
+ * использовать и как обычную карту. Для снимков, выдаваемых при сохранении в фоне,
+ * CollectionManager копирует хранилище через {@link #copy()}.
+ * 
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public abstract class PersonMap extends AbstractMap<Integer, Person> {
+
+    /**
+     * Обход элементов хранилища без упаковки ключей.
+     * Пока обход не закончен, хранилище можно изменять только через {@link #remove()}.
+     */
+    public interface Cursor {
+
+        /**
+         * Проверяет, остались ли непройденные элементы.
+         * 
+         * @return true если есть следующий элемент
+         */
+        boolean hasNext();
+
+        /**
+         * Переходит к следующему элементу.
+         * 
+         * @return Ключ элемента
+         */
+        int nextKey();
+
+        /**
+         * Возвращает значение элемента, к которому выполнен переход.
+         * 
+         * @return Объект Person
+         */
+        Person value();
+
+        /**
+         * Удаляет из хранилища элемент, к которому выполнен переход.
+         */
+        void remove();
+    }
+
+    /**
+     * Возвращает элемент по ключу.
+     * 
+     * @param key Ключ
+     * @return Объект Person или null, если ключа нет
+     */
+    public abstract Person get(int key);
+
+    /**
+     * Записывает элемент по ключу.
+     * 
+     * @param key Ключ
+     * @param person Объект Person, не null
+     * @return Прежний элемент или null
+     */
+    public abstract Person put(int key, Person person);
+
+    /**
+     * Заменяет элемент по ключу, если новый элемент больше прежнего.
+     * Хранилища переопределяют метод, чтобы сравнение и запись выполнялись
+     * за один поиск ключа.
+     * 
+     * @param key Ключ
+     * @param person Новый объект Person, не null
+     * @return Замененный элемент или null, если ключа нет или новый элемент не больше прежнего
+     */
+    public Person replaceIfGreater(int key, Person person) {
+        Person old = get(key);
+        if (old == null || person.compareTo(old) <= 0) return null;
+        put(key, person);
+        return old;
+    }
+
+    /**
+     * Удаляет элемент по ключу.
+     * 
+     * @param key Ключ
+     * @return Удаленный элемент или null, если ключа не было
+     */
+    public abstract Person remove(int key);
+
+    /**
+     * Проверяет наличие ключа.
+     * 
+     * @param key Ключ
+     * @return true если элемент с таким ключом есть
+     */
+    public abstract boolean containsKey(int key);
+
+    /**
+     * Начинает обход элементов в порядке хранения.
+     * 
+     * @return Новый курсор
+     */
+    public abstract Cursor cursor();
+
+    /**
+     * Создает независимую копию хранилища: изменения копии не видны в исходном
+     * хранилище и наоборот. Неизменяемые данные могут разделяться между копиями.
+     * 
+     * @return Копия хранилища
+     */
+    public abstract PersonMap copy();
+
+    @Override
+    public abstract int size();
+
+    @Override
+    public abstract void clear();
+
+    /**
+     * Готовит хранилище к заданному количеству элементов, чтобы при их добавлении
+     * оно не расширялось по нескольку раз. По умолчанию ничего не делает.
+     * 
+     * @param expectedSize Ожидаемое количество элементов
+     */
+    public void ensureCapacity(int expectedSize) {
+    }
+
+    /**
+     * Добавляет все элементы другого хранилища.
+     * 
+     * @param other Хранилище, элементы которого добавляются
+     */
+    public void putAll(PersonMap other) {
+        Cursor cursor = other.cursor();
+        while (cursor.hasNext()) {
+            int key = cursor.nextKey();
+            put(key, cursor.value());
+        }
+    }
+
+    @Override
+    public Person get(Object key) {
+        return key instanceof Integer ? get(((Integer) key).intValue()) : null;
+    }
+
+    @Override
+    public Person put(Integer key, Person person) {
+        return put(key.intValue(), person);
+    }
+
+    @Override
+    public Person remove(Object key) {
+        return key instanceof Integer ? remove(((Integer) key).intValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey(((Integer) key).intValue());
+    }
+
+    /**
+     * Возвращает множество ключей. При обходе ключей значения не читаются,
+     * что важно для хранилищ, разбирающих элементы по требованию.
+     */
+    @Override
+    public Set<Integer> keySet() {
+        return new AbstractSet<Integer>() {
+            @Override
+            public int size() {
+                return PersonMap.this.size();
+            }
+
+            @Override
+            public boolean contains(Object key) {
+                return containsKey(key);
+            }
+
+            @Override
+            public Iterator<Integer> iterator() {
+                Cursor cursor = cursor();
+                return new Iterator<Integer>() {
+                    @Override
+                    public boolean hasNext() {
+                        return cursor.hasNext();
+                    }
+
+                    @Override
+                    public Integer next() {
+                        if (!cursor.hasNext()) throw new NoSuchElementException();
+                        return cursor.nextKey();
+                    }
+
+                    @Override
+                    public void remove() {
+                        cursor.remove();
+                    }
+                };
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<Integer, Person>> entrySet() {
+        return new AbstractSet<Map.Entry<Integer, Person>>() {
+            @Override
+            public int size() {
+                return PersonMap.this.size();
+            }
+
+            @Override
+            public Iterator<Map.Entry<Integer, Person>> iterator() {
+                Cursor cursor = cursor();
+                return new Iterator<Map.Entry<Integer, Person>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return cursor.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<Integer, Person> next() {
+                        if (!cursor.hasNext()) throw new NoSuchElementException();
+                        int key = cursor.nextKey();
+                        return new AbstractMap.SimpleImmutableEntry<>(key, cursor.value());
+                    }
+
+                    @Override
+                    public void remove() {
+                        cursor.remove();
+                    }
+                };
+            }
+        };
+    }
+}
@@ -0,0 +1,308 @@
+package collectionManager;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+import collection.Person;
+
+/**
+ * Основа хранилищ, в которых элементы коллекции лежат подряд идущими строками.
+ * Класс ведет ключи строк и индекс с открытой адресацией, в ячейке которого
+ * записан номер строки; хранение полей строки определяют подклассы.
+ * При удалении на место удаленной строки переносится последняя,
+ * поэтому строки всегда занимают номера от 0 до size() - 1.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public abstract class RowPersonMap extends PersonMap {
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private int[] index;
+    private int mask;
+    private int maxFill;
+    private int size = 0;
+    private int[] rowKeys;
+
+    /**
+     * Создает пустое хранилище, рассчитанное на заданное количество элементов без расширения.
+     * Подкласс должен сам выделить место под строки, вызвав {@link #resizeRows(int)} с {@link #capacity()}.
+     *
+     * @param expectedSize Ожидаемое количество элементов
+     */
+    protected RowPersonMap(int expectedSize) {
+        allocateIndex(capacityFor(expectedSize));
+        rowKeys = new int[Math.max(expectedSize, MIN_CAPACITY)];
+    }
+
+    /**
+     * Создает копию индекса и ключей другого хранилища.
+     * Подкласс копирует поля строк сам.
+     *
+     * @param other Копируемое хранилище
+     */
+    protected RowPersonMap(RowPersonMap other) {
+        index = other.index.clone();
+        mask = other.mask;
+        maxFill = other.maxFill;
+        size = other.size;
+        rowKeys = other.rowKeys.clone();
+    }
+
+    /**
+     * Создает объект Person по строке.
+     *
+     * @param row Номер строки
+     * @return Новый объект Person
+     */
+    protected abstract Person readRow(int row);
+
+    /**
+     * Записывает поля объекта Person в строку, заменяя прежнее содержимое строки.
+     *
+     * @param row Номер строки
+     * @param person Записываемый объект
+     * @param replace true если строка уже занята другим значением этого ключа
+     */
+    protected abstract void writeRow(int row, Person person, boolean replace);
+
+    /**
+     * Переносит поля строки на место другой строки.
+     * Прежнее содержимое строки назначения уже освобождено через {@link #releaseRow(int)}.
+     *
+     * @param from Номер переносимой строки
+     * @param to Номер строки назначения
+     */
+    protected abstract void moveRow(int from, int to);
+
+    /**
+     * Освобождает ресурсы, связанные со строкой (например, ссылки на строки).
+     *
+     * @param row Номер строки
+     */
+    protected abstract void releaseRow(int row);
+
+    /**
+     * Освобождает все строки.
+     *
+     * @param count Количество занятых строк
+     */
+    protected abstract void releaseRows(int count);
+
+    /**
+     * Изменяет вместимость хранилища полей строк.
+     *
+     * @param capacity Новое количество строк
+     */
+    protected abstract void resizeRows(int capacity);
+
+    /**
+     * Возвращает количество строк, под которое выделено место.
+     *
+     * @return Вместимость
+     */
+    protected int capacity() {
+        return rowKeys.length;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Person get(int key) {
+        int slot = find(key);
+        return slot < 0 ? null : readRow(index[slot]);
+    }
+
+    @Override
+    public boolean containsKey(int key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    public Person put(int key, Person person) {
+        if (person == null) throw new NullPointerException("Значение не может быть null");
+        int slot = hash(key) & mask;
+        for (; index[slot] >= 0; slot = (slot + 1) & mask) {
+            int row = index[slot];
+            if (rowKeys[row] == key) {
+                Person old = readRow(row);
+                writeRow(row, person, true);
+                return old;
+            }
+        }
+        if (size == rowKeys.length) {
+            rowKeys = Arrays.copyOf(rowKeys, size * 2);
+            resizeRows(size * 2);
+        }
+        int row = size++;
+        rowKeys[row] = key;
+        writeRow(row, person, false);
+        index[slot] = row;
+        if (size > maxFill) rehash(index.length * 2);
+        return null;
+    }
+
+    @Override
+    public Person replaceIfGreater(int key, Person person) {
+        int slot = find(key);
+        if (slot < 0) return null;
+        int row = index[slot];
+        Person old = readRow(row);
+        if (person.compareTo(old) <= 0) return null;
+        writeRow(row, person, true);
+        return old;
+    }
+
+    @Override
+    public void ensureCapacity(int expectedSize) {
+        if (expectedSize > rowKeys.length) {
+            rowKeys = Arrays.copyOf(rowKeys, expectedSize);
+            resizeRows(expectedSize);
+        }
+        if (expectedSize > maxFill) rehash(capacityFor(expectedSize));
+    }
+
+    @Override
+    public Person remove(int key) {
+        int slot = find(key);
+        if (slot < 0) return null;
+        Person old = readRow(index[slot]);
+        removeSlot(slot);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(index, -1);
+        releaseRows(size);
+        size = 0;
+    }
+
+    @Override
+    public Cursor cursor() {
+        return new RowCursor();
+    }
+
+    /**
+     * Удаляет элемент, на строку которого указывает ячейка индекса:
+     * на место строки переносится последняя строка, ячейка освобождается.
+     *
+     * @param slot Ячейка индекса удаляемого элемента
+     */
+    private void removeSlot(int slot) {
+        int row = index[slot];
+        shiftIndex(slot);
+        releaseRow(row);
+        int last = --size;
+        if (row == last) return;
+        int key = rowKeys[last];
+        moveRow(last, row);
+        index[find(key)] = row;
+        rowKeys[row] = key;
+    }
+
+    /**
+     * Ищет ячейку индекса, указывающую на строку с заданным ключом.
+     *
+     * @param key Ключ
+     * @return Номер ячейки или -1, если ключа нет
+     */
+    private int find(int key) {
+        for (int slot = hash(key) & mask; index[slot] >= 0; slot = (slot + 1) & mask) {
+            if (rowKeys[index[slot]] == key) return slot;
+        }
+        return -1;
+    }
+
+    /**
+     * Освобождает ячейку индекса и сдвигает назад следующие ячейки цепочки,
+     * как в {@link IntPersonMap}.
+     *
+     * @param slot Освобождаемая ячейка
+     */
+    private void shiftIndex(int slot) {
+        for (;;) {
+            int last = slot;
+            slot = (slot + 1) & mask;
+            for (;;) {
+                if (index[slot] < 0) {
+                    index[last] = -1;
+                    return;
+                }
+                int home = hash(rowKeys[index[slot]]) & mask;
+                if (last <= slot ? (last >= home || home > slot) : (last >= home && home > slot)) break;
+                slot = (slot + 1) & mask;
+            }
+            index[last] = index[slot];
+        }
+    }
+
+    private void rehash(int capacity) {
+        allocateIndex(capacity);
+        for (int row = 0; row < size; row++) {
+            int slot = hash(rowKeys[row]) & mask;
+            while (index[slot] >= 0) slot = (slot + 1) & mask;
+            index[slot] = row;
+        }
+    }
+
+    private void allocateIndex(int capacity) {
+        index = new int[capacity];
+        Arrays.fill(index, -1);
+        mask = capacity - 1;
+        maxFill = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(expectedSize / LOAD_FACTOR) + 1;
+        int capacity = MIN_CAPACITY;
+        while (capacity < needed && capacity < MAX_CAPACITY) capacity <<= 1;
+        return capacity;
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Обход строк от последней к первой. При удалении текущей строки
+     * на ее место переносится последняя, уже пройденная строка,
+     * поэтому обход продолжается со строки перед текущей.
+     */
+    private class RowCursor implements Cursor {
+        private int row = size;
+        private boolean canRemove = false;
+
+        @Override
+        public boolean hasNext() {
+            return row > 0;
+        }
+
+        @Override
+        public int nextKey() {
+            if (!hasNext()) throw new NoSuchElementException();
+            canRemove = true;
+            return rowKeys[--row];
+        }
+
+        @Override
+        public Person value() {
+            return readRow(row);
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) throw new IllegalStateException();
+            canRemove = false;
+            removeSlot(find(rowKeys[row]));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package collectionManager;
+
+import java.util.PrimitiveIterator;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Неизменяемое представление коллекции в одной из ее версий.
+ * Снимок читается без блокировок: пока у версии есть открытые снимки,
+ * CollectionManager перед изменением копирует карту и упорядоченное множество ключей
+ * и дальше меняет копии, а снимок сохраняет прежние. Когда все снимки версии закрыты,
+ * на них больше никто не ссылается, и старая версия удаляется сборщиком мусора.
+ * Снимок принадлежит одному читающему потоку и должен быть закрыт после чтения,
+ * например в блоке try-with-resources.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class Snapshot implements AutoCloseable {
+    private final PersonMap map;
+    private final SortedKeySet keys;
+    private final long version;
+    private AtomicInteger readers;
+
+    /**
+     * Создает снимок версии коллекции.
+     *
+     * @param map Карта версии, которая больше не будет изменяться, пока снимок открыт
+     * @param keys Упорядоченные ключи той же версии, которые тоже не будут изменяться
+     * @param version Номер версии
+     * @param readers Счетчик открытых снимков этой карты, уже увеличенный для нового снимка
+     */
+    Snapshot(PersonMap map, SortedKeySet keys, long version, AtomicInteger readers) {
+        this.map = map;
+        this.keys = keys;
+        this.version = version;
+        this.readers = readers;
+    }
+
+    /**
+     * Возвращает карту версии. Карту нельзя изменять.
+     *
+     * @return Карта снимка
+     */
+    public PersonMap getMap() {
+        return map;
+    }
+
+    /**
+     * Возвращает номер версии коллекции, увеличивающийся с каждым изменением.
+     *
+     * @return Номер версии
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Возвращает итератор по ключам снимка в порядке возрастания.
+     * Ключи берутся из упорядоченного множества версии, без копирования и сортировки.
+     *
+     * @return Итератор по ключам
+     */
+    public PrimitiveIterator.OfInt sortedKeys() {
+        return keys.iterator();
+    }
+
+    /**
+     * Закрывает снимок. Повторный вызов ничего не делает.
+     */
+    @Override
+    public void close() {
+        if (readers == null) return;
+        readers.decrementAndGet();
+        readers = null;
+    }
+}
@@ -0,0 +1,336 @@
+package collectionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Упорядоченное множество ключей коллекции.
+ * Ключи хранятся в списке отсортированных блоков примитивного массива:
+ * блок находится двоичным поиском по первым ключам, внутри блока ключ ищется
+ * тоже двоичным поиском. Полный блок делится пополам, пустой удаляется.
+ * Диапазон ключей удаляется целыми блоками, поэтому удаление k ключей
+ * меньше или больше заданного стоит O(log n + k).
+ * 
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class SortedKeySet {
+    private static final int BLOCK_SIZE = 512;
+
+    private ArrayList<Block> blocks = new ArrayList<>();
+    private int size = 0;
+
+    /**
+     * Блок ключей: первые count элементов массива отсортированы по возрастанию.
+     */
+    private static class Block {
+        int[] keys = new int[BLOCK_SIZE];
+        int count = 0;
+    }
+
+    /**
+     * Возвращает количество ключей.
+     * 
+     * @return Количество ключей
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Удаляет все ключи.
+     */
+    public void clear() {
+        blocks = new ArrayList<>();
+        size = 0;
+    }
+
+    /**
+     * Создает независимую копию множества: блоки копируются,
+     * так что изменения копии не видны в исходном множестве и наоборот.
+     * 
+     * @return Копия множества
+     */
+    public SortedKeySet copy() {
+        SortedKeySet copy = new SortedKeySet();
+        copy.blocks = new ArrayList<>(blocks.size());
+        for (Block block : blocks) {
+            Block blockCopy = new Block();
+            System.arraycopy(block.keys, 0, blockCopy.keys, 0, block.count);
+            blockCopy.count = block.count;
+            copy.blocks.add(blockCopy);
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Заменяет содержимое множества заданными ключами.
+     * 
+     * @param keys Ключи в любом порядке, без повторов
+     */
+    public void rebuild(int[] keys) {
+        clear();
+        Arrays.sort(keys);
+        for (int from = 0; from < keys.length; from += BLOCK_SIZE / 2) {
+            Block block = new Block();
+            block.count = Math.min(BLOCK_SIZE / 2, keys.length - from);
+            System.arraycopy(keys, from, block.keys, 0, block.count);
+            blocks.add(block);
+        }
+        size = keys.length;
+    }
+
+    /**
+     * Добавляет ключ.
+     * 
+     * @param key Ключ
+     * @return true если ключа еще не было
+     */
+    public boolean add(int key) {
+        if (blocks.isEmpty()) blocks.add(new Block());
+        int b = findBlock(key);
+        Block block = blocks.get(b);
+        int i = Arrays.binarySearch(block.keys, 0, block.count, key);
+        if (i >= 0) return false;
+        i = -i - 1;
+
+        if (block.count == BLOCK_SIZE) {
+            int half = BLOCK_SIZE / 2;
+            Block upper = new Block();
+            upper.count = BLOCK_SIZE - half;
+            System.arraycopy(block.keys, half, upper.keys, 0, upper.count);
+            block.count = half;
+            blocks.add(b + 1, upper);
+            if (i > half) {
+                block = upper;
+                i -= half;
+            }
+        }
+        System.arraycopy(block.keys, i, block.keys, i + 1, block.count - i);
+        block.keys[i] = key;
+        block.count++;
+        size++;
+        return true;
+    }
+
+    /**
+     * Добавляет диапазон подряд идущих ключей, которых еще нет в множестве.
+     * Если диапазон лежит за наибольшим ключом, ключи дописываются новыми блоками,
+     * как при {@link #rebuild(int[])}, без поиска места для каждого ключа.
+     * 
+     * @param first Первый ключ диапазона
+     * @param count Количество ключей
+     */
+    public void addRange(int first, int count) {
+        if (!blocks.isEmpty() && first <= last()) {
+            for (int i = 0; i < count; i++) {
+                add(first + i);
+            }
+            return;
+        }
+        for (int from = 0; from < count; from += BLOCK_SIZE / 2) {
+            Block block = new Block();
+            block.count = Math.min(BLOCK_SIZE / 2, count - from);
+            for (int i = 0; i < block.count; i++) {
+                block.keys[i] = first + from + i;
+            }
+            blocks.add(block);
+        }
+        size += count;
+    }
+
+    /**
+     * Удаляет ключ.
+     * 
+     * @param key Ключ
+     * @return true если ключ был в множестве
+     */
+    public boolean remove(int key) {
+        if (blocks.isEmpty()) return false;
+        int b = findBlock(key);
+        Block block = blocks.get(b);
+        int i = Arrays.binarySearch(block.keys, 0, block.count, key);
+        if (i < 0) return false;
+        System.arraycopy(block.keys, i + 1, block.keys, i, block.count - i - 1);
+        block.count--;
+        if (block.count == 0) blocks.remove(b);
+        size--;
+        return true;
+    }
+
+    /**
+     * Проверяет наличие ключа.
+     * 
+     * @param key Ключ
+     * @return true если ключ есть в множестве
+     */
+    public boolean contains(int key) {
+        if (blocks.isEmpty()) return false;
+        Block block = blocks.get(findBlock(key));
+        return Arrays.binarySearch(block.keys, 0, block.count, key) >= 0;
+    }
+
+    /**
+     * Удаляет все ключи меньше заданного.
+     * 
+     * @param key Граница диапазона (не включается)
+     * @return Удаленные ключи в порядке возрастания
+     */
+    public int[] removeLower(int key) {
+        if (blocks.isEmpty()) return new int[0];
+        int b = findBlock(key);
+        Block block = blocks.get(b);
+        int split = lowerBound(block, key);
+        int removed = split;
+        for (int j = 0; j < b; j++) removed += blocks.get(j).count;
+
+        int[] result = new int[removed];
+        int position = 0;
+        for (int j = 0; j < b; j++) {
+            System.arraycopy(blocks.get(j).keys, 0, result, position, blocks.get(j).count);
+            position += blocks.get(j).count;
+        }
+        System.arraycopy(block.keys, 0, result, position, split);
+        System.arraycopy(block.keys, split, block.keys, 0, block.count - split);
+        block.count -= split;
+
+        blocks.subList(0, block.count == 0 ? b + 1 : b).clear();
+        size -= removed;
+        return result;
+    }
+
+    /**
+     * Удаляет все ключи больше заданного.
+     * 
+     * @param key Граница диапазона (не включается)
+     * @return Удаленные ключи в порядке возрастания
+     */
+    public int[] removeGreater(int key) {
+        if (blocks.isEmpty()) return new int[0];
+        int b = findBlock(key);
+        Block block = blocks.get(b);
+        int split = upperBound(block, key);
+        int removed = block.count - split;
+        for (int j = b + 1; j < blocks.size(); j++) removed += blocks.get(j).count;
+
+        int[] result = new int[removed];
+        System.arraycopy(block.keys, split, result, 0, block.count - split);
+        int position = block.count - split;
+        for (int j = b + 1; j < blocks.size(); j++) {
+            System.arraycopy(blocks.get(j).keys, 0, result, position, blocks.get(j).count);
+            position += blocks.get(j).count;
+        }
+        block.count = split;
+
+        blocks.subList(split == 0 ? b : b + 1, blocks.size()).clear();
+        size -= removed;
+        return result;
+    }
+
+    /**
+     * Возвращает наименьший ключ.
+     *
+     * @return Наименьший ключ или Integer.MAX_VALUE, если множество пусто
+     */
+    public int first() {
+        if (blocks.isEmpty()) return Integer.MAX_VALUE;
+        return blocks.get(0).keys[0];
+    }
+
+    /**
+     * Возвращает наибольший ключ.
+     *
+     * @return Наибольший ключ или Integer.MIN_VALUE, если множество пусто
+     */
+    public int last() {
+        if (blocks.isEmpty()) return Integer.MIN_VALUE;
+        Block block = blocks.get(blocks.size() - 1);
+        return block.keys[block.count - 1];
+    }
+
+    /**
+     * Находит первый промежуток между ключами, в котором помещается
+     * не меньше count свободных ключей, начиная с ключа from.
+     * Промежуток возвращается упакованным в long: первый свободный ключ
+     * в старших 32 битах, первый занятый ключ после него (или Integer.MAX_VALUE) - в младших.
+     *
+     * @param from Наименьший допустимый ключ
+     * @param count Требуемое количество свободных ключей
+     * @return Упакованный промежуток или -1, если подходящего промежутка нет
+     */
+    public long findGap(int from, int count) {
+        long start = from;
+        PrimitiveIterator.OfInt iterator = iterator();
+        while (iterator.hasNext()) {
+            int key = iterator.nextInt();
+            if (key < start) continue;
+            if (key - start >= count) return (start << 32) | key;
+            start = (long) key + 1;
+        }
+        if (Integer.MAX_VALUE - start >= count) return (start << 32) | Integer.MAX_VALUE;
+        return -1;
+    }
+
+    /**
+     * Возвращает итератор по ключам в порядке возрастания.
+     * Множество нельзя изменять, пока итератор используется.
+     * 
+     * @return Итератор по ключам
+     */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int b = 0;
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (b < blocks.size() && i >= blocks.get(b).count) {
+                    b++;
+                    i = 0;
+                }
+                return b < blocks.size();
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) throw new NoSuchElementException();
+                return blocks.get(b).keys[i++];
+            }
+        };
+    }
+
+    /**
+     * Находит блок, в котором должен находиться ключ: последний блок,
+     * первый ключ которого не больше заданного, или первый блок.
+     */
+    private int findBlock(int key) {
+        int low = 0;
+        int high = blocks.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (blocks.get(middle).keys[0] <= key) low = middle;
+            else high = middle - 1;
+        }
+        return low;
+    }
+
+    /**
+     * Возвращает количество ключей блока, меньших заданного.
+     */
+    private static int lowerBound(Block block, int key) {
+        int i = Arrays.binarySearch(block.keys, 0, block.count, key);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /**
+     * Возвращает количество ключей блока, не больших заданного.
+     */
+    private static int upperBound(Block block, int key) {
+        int i = Arrays.binarySearch(block.keys, 0, block.count, key);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+}
@@ -0,0 +1,263 @@
+package collectionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Упорядоченный вторичный индекс: пары (значение, ключ), отсортированные
+ * по значению, а при равных значениях - по ключу.
+ * Пары хранятся так же, как ключи в {@link SortedKeySet}: в списке отсортированных блоков
+ * параллельных примитивных массивов значений и ключей. Блок находится двоичным поиском
+ * по первым парам, пара внутри блока - тоже двоичным поиском, поэтому добавление и удаление
+ * стоят O(log n), а выборка k ключей из диапазона значений - O(log n + k).
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class SortedLongIndex {
+    private static final int BLOCK_SIZE = 512;
+
+    private ArrayList<Block> blocks = new ArrayList<>();
+    private int size = 0;
+
+    /**
+     * Блок пар: первые count элементов массивов упорядочены.
+     */
+    private static class Block {
+        long[] values = new long[BLOCK_SIZE];
+        int[] keys = new int[BLOCK_SIZE];
+        int count = 0;
+    }
+
+    /**
+     * Возвращает количество пар.
+     *
+     * @return Количество пар
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Удаляет все пары.
+     */
+    public void clear() {
+        blocks = new ArrayList<>();
+        size = 0;
+    }
+
+    /**
+     * Заменяет содержимое индекса заданными парами.
+     * Массивы сортируются на месте.
+     *
+     * @param values Значения в любом порядке
+     * @param keys Ключи, соответствующие значениям, без повторов
+     * @param count Количество пар
+     */
+    public void rebuild(long[] values, int[] keys, int count) {
+        clear();
+        sort(values, keys, count);
+        for (int from = 0; from < count; from += BLOCK_SIZE / 2) {
+            Block block = new Block();
+            block.count = Math.min(BLOCK_SIZE / 2, count - from);
+            System.arraycopy(values, from, block.values, 0, block.count);
+            System.arraycopy(keys, from, block.keys, 0, block.count);
+            blocks.add(block);
+        }
+        size = count;
+    }
+
+    /**
+     * Добавляет пару.
+     *
+     * @param value Значение
+     * @param key Ключ
+     * @return true если такой пары еще не было
+     */
+    public boolean add(long value, int key) {
+        if (blocks.isEmpty()) blocks.add(new Block());
+        int b = findBlock(value, key);
+        Block block = blocks.get(b);
+        int i = search(block, value, key);
+        if (i >= 0) return false;
+        i = -i - 1;
+
+        if (block.count == BLOCK_SIZE) {
+            int half = BLOCK_SIZE / 2;
+            Block upper = new Block();
+            upper.count = BLOCK_SIZE - half;
+            System.arraycopy(block.values, half, upper.values, 0, upper.count);
+            System.arraycopy(block.keys, half, upper.keys, 0, upper.count);
+            block.count = half;
+            blocks.add(b + 1, upper);
+            if (i > half) {
+                block = upper;
+                i -= half;
+            }
+        }
+        System.arraycopy(block.values, i, block.values, i + 1, block.count - i);
+        System.arraycopy(block.keys, i, block.keys, i + 1, block.count - i);
+        block.values[i] = value;
+        block.keys[i] = key;
+        block.count++;
+        size++;
+        return true;
+    }
+
+    /**
+     * Удаляет пару.
+     *
+     * @param value Значение
+     * @param key Ключ
+     * @return true если пара была в индексе
+     */
+    public boolean remove(long value, int key) {
+        if (blocks.isEmpty()) return false;
+        int b = findBlock(value, key);
+        Block block = blocks.get(b);
+        int i = search(block, value, key);
+        if (i < 0) return false;
+        System.arraycopy(block.values, i + 1, block.values, i, block.count - i - 1);
+        System.arraycopy(block.keys, i + 1, block.keys, i, block.count - i - 1);
+        block.count--;
+        if (block.count == 0) blocks.remove(b);
+        size--;
+        return true;
+    }
+
+    /**
+     * Возвращает ключи пар, значения которых лежат в диапазоне (границы включаются),
+     * в порядке значений, а при равных значениях - в порядке ключей.
+     *
+     * @param from Наименьшее значение
+     * @param to Наибольшее значение
+     * @return Массив ключей
+     */
+    public int[] range(long from, long to) {
+        if (blocks.isEmpty() || from > to) return new int[0];
+        int b = findBlock(from, Integer.MIN_VALUE);
+        int i = search(blocks.get(b), from, Integer.MIN_VALUE);
+        if (i < 0) i = -i - 1;
+        int[] result = new int[16];
+        int count = 0;
+        for (; b < blocks.size(); b++, i = 0) {
+            Block block = blocks.get(b);
+            int end = i;
+            while (end < block.count && block.values[end] <= to) end++;
+            if (count + end - i > result.length) result = Arrays.copyOf(result, Math.max(result.length * 2, count + end - i));
+            System.arraycopy(block.keys, i, result, count, end - i);
+            count += end - i;
+            if (end < block.count) break;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Находит блок, в котором должна находиться пара: последний блок,
+     * первая пара которого не больше заданной, или первый блок.
+     */
+    private int findBlock(long value, int key) {
+        int low = 0;
+        int high = blocks.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            Block block = blocks.get(middle);
+            if (compare(block.values[0], block.keys[0], value, key) <= 0) low = middle;
+            else high = middle - 1;
+        }
+        return low;
+    }
+
+    /**
+     * Ищет пару в блоке двоичным поиском.
+     *
+     * @return Позиция пары или (-(позиция вставки) - 1), если пары нет
+     */
+    private static int search(Block block, long value, int key) {
+        int low = 0;
+        int high = block.count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int compare = compare(block.values[middle], block.keys[middle], value, key);
+            if (compare < 0) low = middle + 1;
+            else if (compare > 0) high = middle - 1;
+            else return middle;
+        }
+        return -(low + 1);
+    }
+
+    private static int compare(long value1, int key1, long value2, int key2) {
+        int compare = Long.compare(value1, value2);
+        return compare != 0 ? compare : Integer.compare(key1, key2);
+    }
+
+    /**
+     * Сортирует пары, переставляя значения и ключи вместе. Если разность наибольшего
+     * и наименьшего значения помещается в 32 бита (дни рождения - всегда), пара упаковывается
+     * в одно число long - сдвиг значения в старших битах, ключ в младших - и массив
+     * сортируется Arrays.sort; иначе пары сортируются слиянием снизу вверх.
+     */
+    private static void sort(long[] values, int[] keys, int count) {
+        if (count < 2) return;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+        }
+        long span = max - min;
+        if (span >= 0 && span <= 0xFFFFFFFFL) {
+            long[] packed = new long[count];
+            for (int i = 0; i < count; i++) {
+                packed[i] = ((values[i] - min) << 32 | (keys[i] - Integer.MIN_VALUE) & 0xFFFFFFFFL) + Long.MIN_VALUE;
+            }
+            Arrays.sort(packed);
+            for (int i = 0; i < count; i++) {
+                long pair = packed[i] - Long.MIN_VALUE;
+                values[i] = (pair >>> 32) + min;
+                keys[i] = (int) pair + Integer.MIN_VALUE;
+            }
+            return;
+        }
+        mergeSort(values, keys, count);
+    }
+
+    /**
+     * Сортирует пары слиянием снизу вверх.
+     */
+    private static void mergeSort(long[] values, int[] keys, int count) {
+        long[] valueBuffer = new long[count];
+        int[] keyBuffer = new int[count];
+        long[] sourceValues = values;
+        int[] sourceKeys = keys;
+        for (int width = 1; width < count; width *= 2) {
+            for (int from = 0; from < count; from += 2 * width) {
+                int middle = Math.min(from + width, count);
+                int to = Math.min(from + 2 * width, count);
+                int i = from;
+                int j = middle;
+                for (int k = from; k < to; k++) {
+                    if (j >= to || (i < middle && compare(sourceValues[i], sourceKeys[i], sourceValues[j], sourceKeys[j]) <= 0)) {
+                        valueBuffer[k] = sourceValues[i];
+                        keyBuffer[k] = sourceKeys[i++];
+                    }
+                    else {
+                        valueBuffer[k] = sourceValues[j];
+                        keyBuffer[k] = sourceKeys[j++];
+                    }
+                }
+            }
+            long[] swapValues = sourceValues;
+            sourceValues = valueBuffer;
+            valueBuffer = swapValues;
+            int[] swapKeys = sourceKeys;
+            sourceKeys = keyBuffer;
+            keyBuffer = swapKeys;
+        }
+        if (sourceValues != values) {
+            System.arraycopy(sourceValues, 0, values, 0, count);
+            System.arraycopy(sourceKeys, 0, keys, 0, count);
+        }
+    }
+}
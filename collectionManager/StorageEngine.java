@@ -0,0 +1,73 @@
+package collectionManager;
+
+/**
+ * Способ хранения коллекции в памяти.
+ * Выбирается параметром запуска -Dlab5.storage=objects|columnar|offheap;
+ * по умолчанию элементы хранятся объектами Person.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public enum StorageEngine {
+
+    /**
+     * Объекты Person в хеш-таблице с открытой адресацией ({@link IntPersonMap}).
+     */
+    OBJECTS {
+        @Override
+        public PersonMap create(int expectedSize) {
+            return new IntPersonMap(expectedSize);
+        }
+    },
+
+    /**
+     * Поля Person в примитивных столбцах ({@link ColumnarPersonMap}).
+     */
+    COLUMNAR {
+        @Override
+        public PersonMap create(int expectedSize) {
+            return new ColumnarPersonMap(expectedSize);
+        }
+    },
+
+    /**
+     * Записи фиксированной длины вне кучи Java ({@link OffHeapPersonMap}).
+     */
+    OFFHEAP {
+        @Override
+        public PersonMap create(int expectedSize) {
+            return new OffHeapPersonMap(expectedSize);
+        }
+    };
+
+    private static final StorageEngine CURRENT = fromProperty(System.getProperty("lab5.storage"));
+
+    /**
+     * Создает пустое хранилище коллекции.
+     *
+     * @param expectedSize Ожидаемое количество элементов
+     * @return Новое хранилище
+     */
+    public abstract PersonMap create(int expectedSize);
+
+    /**
+     * Возвращает способ хранения, выбранный при запуске программы.
+     *
+     * @return Текущий способ хранения
+     */
+    public static StorageEngine current() {
+        return CURRENT;
+    }
+
+    private static StorageEngine fromProperty(String value) {
+        if (value == null) return OBJECTS;
+        try {
+            return valueOf(value.trim().toUpperCase());
+        }
+        catch (IllegalArgumentException ex) {
+            System.out.println("Неизвестный способ хранения коллекции: " + value + ", используются объекты.");
+            return OBJECTS;
+        }
+    }
+}
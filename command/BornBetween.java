@@ -0,0 +1,100 @@
+package command;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+import collectionManager.CollectionManager;
+import commandManager.CommandInterface;
+import exceptions.InvalidArgumentException;
+import exceptions.NullCollectionException;
+
+/**
+ * Команда для поиска элементов, родившихся в промежутке дат.
+ * Реализует интерфейс CommandInterface для обработки командной строки.
+ * 
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class BornBetween implements CommandInterface {
+
+    /**
+     * Выводит в порядке дня рождения элементы, родившиеся с первой по вторую дату включительно.
+     * Элементы без дня рождения не учитываются, выводится только их количество.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void execute(String[] tokens) {
+        if (checkArguments(tokens.length)) {
+            CollectionManager manager = CollectionManager.getManager();
+            try {
+                if (manager.getCollection() == null) throw new NullCollectionException("Null коллекция!");
+                LocalDate from = parseDate(tokens[1]);
+                LocalDate to = parseDate(tokens[2]);
+                if (from.isAfter(to)) throw new InvalidArgumentException("Первая дата должна быть не позже второй!");
+                int count = manager.printBornBetween(from, to);
+                System.out.println("Найдено элементов: " + count);
+                int withoutBirthday = manager.getWithoutBirthday();
+                if (withoutBirthday > 0) System.out.println("Элементов без дня рождения (не проверялись): " + withoutBirthday);
+            }
+            catch (InvalidArgumentException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+            catch (NullCollectionException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Выполняет ту же логику, что и метод execute(), но в контексте выполнения скрипта.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void executeScript(String[] tokens) {
+        execute(tokens);
+    }
+
+    /**
+     * Возвращает краткое описание команды.
+     * 
+     * @return строка описания команды
+     */
+    @Override
+    public String getDescription() {
+        return "born_between [from] [to]: вывести элементы, родившиеся с from по to (YYYY-MM-DD) включительно.";
+    }
+
+    /**
+     * Проверяет корректность количества аргументов команды.
+     * Команда должна иметь два аргумента - первую и последнюю дату промежутка.
+     * 
+     * @param length количество переданных аргументов
+     * @return true если количество аргументов корректно, false если нет
+     */
+    @Override
+    public boolean checkArguments(int length) {
+        try {
+            if (length < 3) throw new InvalidArgumentException("Укажите первую и последнюю дату!");
+            if (length > 3) throw new InvalidArgumentException("Лишние аргументы!");
+        }
+        catch(InvalidArgumentException ex) {
+            System.out.println(ex.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    private static LocalDate parseDate(String token) throws InvalidArgumentException {
+        try {
+            return LocalDate.parse(token);
+        }
+        catch (DateTimeParseException ex) {
+            throw new InvalidArgumentException("Неверный формат даты: " + token + ". Используйте формат YYYY-MM-DD.");
+        }
+    }
+}
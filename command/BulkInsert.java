@@ -0,0 +1,136 @@
+package command;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+
+import collectionManager.CollectionManager;
+import commandManager.BulkReader;
+import commandManager.CommandInterface;
+import commandManager.InputScript;
+import exceptions.InvalidArgumentException;
+import exceptions.NullCollectionException;
+
+/**
+ * Команда для массового добавления элементов в коллекцию.
+ * Записи читаются из файла, по одной на строку (формат описан в {@link BulkReader}).
+ * В скрипте записи можно перечислить сразу после команды, закончив их строкой end.
+ * Все верные записи добавляются в коллекцию одной операцией.
+ * 
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class BulkInsert implements CommandInterface {
+
+    /**
+     * Строка, завершающая записи в скрипте.
+     */
+    private static final String END = "end";
+
+    /**
+     * Выполняет добавление элементов из файла.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void execute(String[] tokens) {
+        if (checkArguments(tokens.length)) {
+            try {
+                if (tokens.length < 2) throw new InvalidArgumentException("Укажите файл с записями!");
+                BulkReader reader = new BulkReader();
+                try (BufferedReader file = Files.newBufferedReader(Path.of(tokens[1]))) {
+                    reader.read(file);
+                }
+                insert(reader);
+            }
+            catch (InvalidArgumentException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+            catch (NoSuchFileException ex) {
+                System.out.println("Файл не найден!");
+                return;
+            }
+            catch (IOException ex) {
+                System.out.println("Ошибка при чтении файла.");
+                return;
+            }
+        }
+    }
+
+    /**
+     * Выполняет добавление элементов при выполнении скрипта.
+     * Без аргумента записи читаются из самого скрипта до строки end.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void executeScript(String[] tokens) {
+        if (tokens.length != 1) {
+            execute(tokens);
+            return;
+        }
+        BulkReader reader = new BulkReader();
+        InputScript input = InputScript.getInput();
+        String line;
+        while ((line = input.readLine()) != null && !line.trim().equals(END)) {
+            reader.readLine(line);
+        }
+        insert(reader);
+    }
+
+    /**
+     * Добавляет прочитанные записи в коллекцию и сообщает результат.
+     * 
+     * @param reader Прочитанные записи
+     */
+    private void insert(BulkReader reader) {
+        CollectionManager manager = CollectionManager.getManager();
+        try {
+            if (manager.getCollection() == null) throw new NullCollectionException("Невозможно добавить элементы, null коллекция!");
+            int count = reader.getCount();
+            int first = manager.insertAll(reader.getRecords(), count);
+            if (count > 0) System.out.println("Добавлено элементов: " + count + ", ключи с " + first + " по " + (first + count - 1) + ".");
+            else System.out.println("Ни одного элемента не добавлено.");
+            if (reader.getErrors() > 0) System.out.println("Пропущено неверных записей: " + reader.getErrors());
+        }
+        catch (NullCollectionException ex) {
+            System.out.println(ex.getMessage());
+        }
+        catch (IllegalStateException ex) {
+            System.out.println(ex.getMessage());
+        }
+    }
+
+    /**
+     * Возвращает краткое описание команды.
+     * 
+     * @return строка описания команды
+     */
+    @Override
+    public String getDescription() {
+        return "bulk_insert [file_name]: добавить в коллекцию элементы из файла, по одному на строку.";
+    }
+
+    /**
+     * Проверяет корректность количества аргументов команды.
+     * Команда принимает не больше одного аргумента - имя файла.
+     * 
+     * @param length количество переданных аргументов
+     * @return true если количество аргументов корректно, false если нет
+     */
+    @Override
+    public boolean checkArguments(int length) {
+        try {
+            if (length > 2) throw new InvalidArgumentException("Лишние аргументы! Имя файла должно быть одним словом.");
+        }
+        catch(InvalidArgumentException ex) {
+            System.out.println(ex.getMessage());
+            return false;
+        }
+        return true;
+    }
+}
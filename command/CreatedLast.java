@@ -0,0 +1,101 @@
+package command;
+
+import java.time.LocalDateTime;
+
+import collectionManager.CollectionManager;
+import commandManager.CommandInterface;
+import exceptions.InvalidArgumentException;
+import exceptions.NullCollectionException;
+
+/**
+ * Команда для поиска элементов, созданных за последние минуты.
+ * Реализует интерфейс CommandInterface для обработки командной строки.
+ * 
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class CreatedLast implements CommandInterface {
+
+    /**
+     * Выводит в порядке даты создания элементы, созданные за последние N минут.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void execute(String[] tokens) {
+        if (checkArguments(tokens.length)) {
+            CollectionManager manager = CollectionManager.getManager();
+            try {
+                if (manager.getCollection() == null) throw new NullCollectionException("Null коллекция!");
+                long minutes = parseMinutes(tokens[1]);
+                int count = manager.printCreatedSince(LocalDateTime.now().minusMinutes(minutes));
+                System.out.println("Найдено элементов: " + count);
+            }
+            catch (InvalidArgumentException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+            catch (NullCollectionException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Выполняет ту же логику, что и метод execute(), но в контексте выполнения скрипта.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void executeScript(String[] tokens) {
+        execute(tokens);
+    }
+
+    /**
+     * Возвращает краткое описание команды.
+     * 
+     * @return строка описания команды
+     */
+    @Override
+    public String getDescription() {
+        return "created_last [minutes]: вывести элементы, созданные за последние minutes минут.";
+    }
+
+    /**
+     * Проверяет корректность количества аргументов команды.
+     * Команда должна иметь один аргумент - количество минут.
+     * 
+     * @param length количество переданных аргументов
+     * @return true если количество аргументов корректно, false если нет
+     */
+    @Override
+    public boolean checkArguments(int length) {
+        try {
+            if (length < 2) throw new InvalidArgumentException("Укажите количество минут!");
+            if (length > 2) throw new InvalidArgumentException("Лишние аргументы!");
+        }
+        catch(InvalidArgumentException ex) {
+            System.out.println(ex.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Разбирает количество минут. Промежуток ограничен примерно тысячей лет,
+     * чтобы начало промежутка оставалось допустимой датой.
+     */
+    private static long parseMinutes(String token) throws InvalidArgumentException {
+        long value;
+        try {
+            value = Long.parseLong(token);
+        }
+        catch (NumberFormatException ex) {
+            throw new InvalidArgumentException("Количество минут должно быть целым числом!");
+        }
+        if (value <= 0) throw new InvalidArgumentException("Количество минут должно быть > 0!");
+        return Math.min(value, 1000L * 366 * 24 * 60);
+    }
+}
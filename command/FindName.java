@@ -0,0 +1,83 @@
+package command;
+
+import collectionManager.CollectionManager;
+import commandManager.CommandInterface;
+import exceptions.InvalidArgumentException;
+import exceptions.NullCollectionException;
+
+/**
+ * Команда для поиска элементов по имени.
+ * Реализует интерфейс CommandInterface для обработки командной строки.
+ * 
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class FindName implements CommandInterface {
+
+    /**
+     * Выводит в порядке ключей элементы, имя которых совпадает с заданным.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void execute(String[] tokens) {
+        if (checkArguments(tokens.length)) {
+            CollectionManager manager = CollectionManager.getManager();
+            try {
+                if (manager.getCollection() == null) throw new NullCollectionException("Null коллекция!");
+                if (!tokens[1].matches("[a-zA-Z]+")) throw new InvalidArgumentException("Используйте только латинские буквы!");
+                int count = manager.printByName(tokens[1]);
+                System.out.println("Найдено элементов: " + count);
+            }
+            catch (InvalidArgumentException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+            catch (NullCollectionException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Выполняет ту же логику, что и метод execute(), но в контексте выполнения скрипта.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void executeScript(String[] tokens) {
+        execute(tokens);
+    }
+
+    /**
+     * Возвращает краткое описание команды.
+     * 
+     * @return строка описания команды
+     */
+    @Override
+    public String getDescription() {
+        return "find_name [name]: вывести элементы с заданным именем.";
+    }
+
+    /**
+     * Проверяет корректность количества аргументов команды.
+     * Команда должна иметь один аргумент - имя.
+     * 
+     * @param length количество переданных аргументов
+     * @return true если количество аргументов корректно, false если нет
+     */
+    @Override
+    public boolean checkArguments(int length) {
+        try {
+            if (length < 2) throw new InvalidArgumentException("Имя не может быть пустым!");
+            if (length > 2) throw new InvalidArgumentException("Лишние аргументы!");
+        }
+        catch(InvalidArgumentException ex) {
+            System.out.println(ex.getMessage());
+            return false;
+        }
+        return true;
+    }
+}
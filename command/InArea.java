@@ -0,0 +1,87 @@
+package command;
+
+import collectionManager.CollectionManager;
+import commandManager.CommandInterface;
+import commandManager.NumberParser;
+import exceptions.InvalidArgumentException;
+import exceptions.NullCollectionException;
+
+/**
+ * Команда для поиска элементов, координаты которых лежат в прямоугольнике.
+ * Реализует интерфейс CommandInterface для обработки командной строки.
+ * 
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class InArea implements CommandInterface {
+
+    /**
+     * Выводит элементы, координаты которых лежат в прямоугольнике с углами (x1, y1) и (x2, y2).
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void execute(String[] tokens) {
+        if (checkArguments(tokens.length)) {
+            CollectionManager manager = CollectionManager.getManager();
+            try {
+                if (manager.getCollection() == null) throw new NullCollectionException("Null коллекция!");
+                double[] corners = new double[4];
+                for (int i = 0; i < corners.length; i++) {
+                    corners[i] = NumberParser.parseDouble(tokens[i + 1], false);
+                }
+                int count = manager.printInArea(corners[0], corners[1], corners[2], corners[3]);
+                System.out.println("Найдено элементов: " + count);
+            }
+            catch (InvalidArgumentException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+            catch (NullCollectionException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Выполняет ту же логику, что и метод execute(), но в контексте выполнения скрипта.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void executeScript(String[] tokens) {
+        execute(tokens);
+    }
+
+    /**
+     * Возвращает краткое описание команды.
+     * 
+     * @return строка описания команды
+     */
+    @Override
+    public String getDescription() {
+        return "in_area [x1] [y1] [x2] [y2]: вывести элементы, координаты которых лежат в прямоугольнике.";
+    }
+
+    /**
+     * Проверяет корректность количества аргументов команды.
+     * Команда должна иметь четыре аргумента - координаты противоположных углов прямоугольника.
+     * 
+     * @param length количество переданных аргументов
+     * @return true если количество аргументов корректно, false если нет
+     */
+    @Override
+    public boolean checkArguments(int length) {
+        try {
+            if (length < 5) throw new InvalidArgumentException("Укажите координаты двух противоположных углов!");
+            if (length > 5) throw new InvalidArgumentException("Лишние аргументы!");
+        }
+        catch(InvalidArgumentException ex) {
+            System.out.println(ex.getMessage());
+            return false;
+        }
+        return true;
+    }
+}
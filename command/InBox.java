@@ -0,0 +1,90 @@
+package command;
+
+import collectionManager.CollectionManager;
+import commandManager.CommandInterface;
+import commandManager.NumberParser;
+import exceptions.InvalidArgumentException;
+import exceptions.NullCollectionException;
+
+/**
+ * Команда для поиска элементов, локация которых лежит в параллелепипеде.
+ * Реализует интерфейс CommandInterface для обработки командной строки.
+ * 
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class InBox implements CommandInterface {
+
+    /**
+     * Выводит элементы, локация которых лежит в параллелепипеде с углами (x1, y1, z1) и (x2, y2, z2).
+     * Элементы без локации не учитываются, выводится только их количество.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void execute(String[] tokens) {
+        if (checkArguments(tokens.length)) {
+            CollectionManager manager = CollectionManager.getManager();
+            try {
+                if (manager.getCollection() == null) throw new NullCollectionException("Null коллекция!");
+                double[] corners = new double[6];
+                for (int i = 0; i < corners.length; i++) {
+                    corners[i] = NumberParser.parseDouble(tokens[i + 1], false);
+                }
+                int count = manager.printInBox(corners[0], corners[1], corners[2], corners[3], corners[4], corners[5]);
+                System.out.println("Найдено элементов: " + count);
+                int withoutLocation = manager.getWithoutLocation();
+                if (withoutLocation > 0) System.out.println("Элементов без локации (не проверялись): " + withoutLocation);
+            }
+            catch (InvalidArgumentException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+            catch (NullCollectionException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Выполняет ту же логику, что и метод execute(), но в контексте выполнения скрипта.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void executeScript(String[] tokens) {
+        execute(tokens);
+    }
+
+    /**
+     * Возвращает краткое описание команды.
+     * 
+     * @return строка описания команды
+     */
+    @Override
+    public String getDescription() {
+        return "in_box [x1] [y1] [z1] [x2] [y2] [z2]: вывести элементы, локация которых лежит в параллелепипеде.";
+    }
+
+    /**
+     * Проверяет корректность количества аргументов команды.
+     * Команда должна иметь шесть аргументов - координаты противоположных углов параллелепипеда.
+     * 
+     * @param length количество переданных аргументов
+     * @return true если количество аргументов корректно, false если нет
+     */
+    @Override
+    public boolean checkArguments(int length) {
+        try {
+            if (length < 7) throw new InvalidArgumentException("Укажите координаты двух противоположных углов!");
+            if (length > 7) throw new InvalidArgumentException("Лишние аргументы!");
+        }
+        catch(InvalidArgumentException ex) {
+            System.out.println(ex.getMessage());
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,91 @@
+package command;
+
+import collectionManager.CollectionManager;
+import commandManager.CommandInterface;
+import commandManager.NumberParser;
+import exceptions.InvalidArgumentException;
+import exceptions.NullCollectionException;
+
+/**
+ * Команда для поиска элементов, локация которых лежит в шаре с заданным центром и радиусом.
+ * Реализует интерфейс CommandInterface для обработки командной строки.
+ * 
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class InRadius implements CommandInterface {
+
+    /**
+     * Выводит элементы, локация которых удалена от точки (x, y, z) не больше чем на радиус.
+     * Элементы без локации не учитываются, выводится только их количество.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void execute(String[] tokens) {
+        if (checkArguments(tokens.length)) {
+            CollectionManager manager = CollectionManager.getManager();
+            try {
+                if (manager.getCollection() == null) throw new NullCollectionException("Null коллекция!");
+                double x = NumberParser.parseDouble(tokens[1], true);
+                double y = NumberParser.parseDouble(tokens[2], true);
+                double z = NumberParser.parseDouble(tokens[3], true);
+                double radius = NumberParser.parseDouble(tokens[4], true);
+                if (radius < 0) throw new InvalidArgumentException("Радиус должен быть >= 0!");
+                int count = manager.printInRadius(x, y, z, radius);
+                System.out.println("Найдено элементов: " + count);
+                int withoutLocation = manager.getWithoutLocation();
+                if (withoutLocation > 0) System.out.println("Элементов без локации (не проверялись): " + withoutLocation);
+            }
+            catch (InvalidArgumentException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+            catch (NullCollectionException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Выполняет ту же логику, что и метод execute(), но в контексте выполнения скрипта.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void executeScript(String[] tokens) {
+        execute(tokens);
+    }
+
+    /**
+     * Возвращает краткое описание команды.
+     * 
+     * @return строка описания команды
+     */
+    @Override
+    public String getDescription() {
+        return "in_radius [x] [y] [z] [r]: вывести элементы, локация которых удалена от точки (x, y, z) не больше чем на r.";
+    }
+
+    /**
+     * Проверяет корректность количества аргументов команды.
+     * Команда должна иметь четыре аргумента - координаты центра и радиус.
+     * 
+     * @param length количество переданных аргументов
+     * @return true если количество аргументов корректно, false если нет
+     */
+    @Override
+    public boolean checkArguments(int length) {
+        try {
+            if (length < 5) throw new InvalidArgumentException("Укажите координаты центра и радиус!");
+            if (length > 5) throw new InvalidArgumentException("Лишние аргументы!");
+        }
+        catch(InvalidArgumentException ex) {
+            System.out.println(ex.getMessage());
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,97 @@
+package command;
+
+import collectionManager.CollectionManager;
+import commandManager.CommandInterface;
+import commandManager.NumberParser;
+import exceptions.InvalidArgumentException;
+import exceptions.NullCollectionException;
+
+/**
+ * Команда для поиска элементов, координаты которых ближе всего к заданной точке.
+ * Реализует интерфейс CommandInterface для обработки командной строки.
+ * 
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class Nearest implements CommandInterface {
+
+    /**
+     * Выводит k элементов, ближайших к точке (x, y), в порядке возрастания расстояния.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void execute(String[] tokens) {
+        if (checkArguments(tokens.length)) {
+            CollectionManager manager = CollectionManager.getManager();
+            try {
+                if (manager.getCollection() == null) throw new NullCollectionException("Null коллекция!");
+                double x = NumberParser.parseDouble(tokens[1], true);
+                double y = NumberParser.parseDouble(tokens[2], true);
+                int k = parseCount(tokens[3]);
+                if (manager.printNearest(x, y, k) == 0) System.out.println("Коллекция пуста!");
+            }
+            catch (InvalidArgumentException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+            catch (NullCollectionException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Выполняет ту же логику, что и метод execute(), но в контексте выполнения скрипта.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void executeScript(String[] tokens) {
+        execute(tokens);
+    }
+
+    /**
+     * Возвращает краткое описание команды.
+     * 
+     * @return строка описания команды
+     */
+    @Override
+    public String getDescription() {
+        return "nearest [x] [y] [k]: вывести k элементов, координаты которых ближе всего к точке (x, y).";
+    }
+
+    /**
+     * Проверяет корректность количества аргументов команды.
+     * Команда должна иметь три аргумента - координаты точки и количество элементов.
+     * 
+     * @param length количество переданных аргументов
+     * @return true если количество аргументов корректно, false если нет
+     */
+    @Override
+    public boolean checkArguments(int length) {
+        try {
+            if (length < 4) throw new InvalidArgumentException("Укажите координаты точки и количество элементов!");
+            if (length > 4) throw new InvalidArgumentException("Лишние аргументы!");
+        }
+        catch(InvalidArgumentException ex) {
+            System.out.println(ex.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    private static int parseCount(String token) throws InvalidArgumentException {
+        int value;
+        try {
+            value = Integer.parseInt(token);
+        }
+        catch (NumberFormatException ex) {
+            throw new InvalidArgumentException("Количество должно быть целым числом!");
+        }
+        if (value <= 0) throw new InvalidArgumentException("Количество должно быть > 0!");
+        return value;
+    }
+}
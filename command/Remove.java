@@ -97,7 +97,7 @@ public class Remove implements CommandInterface, ArgumentInterface {
     public boolean checkKey(Integer key) {
         CollectionManager manager = CollectionManager.getManager();
         if (manager.getCollection() == null) return false;
-        if (manager.getCollection().containsKey(key)) return true;
+        if (manager.containsKey(key)) return true;
         return false;
     }
 
@@ -34,7 +34,7 @@ public class RemoveGreater implements CommandInterface, ArgumentInterface {
                 CollectionManager manager = CollectionManager.getManager();
                 if (manager.getCollection() == null) throw new NullCollectionException("Null коллекция!");
                     
-                int number = manager.removeKeys(key, true);
+                int number = manager.removeKeys(key, false);
                 if (number >= 0) System.out.println(number + " элементов удалено.");
             }
             catch(InvalidArgumentException ex) {
@@ -99,7 +99,7 @@ public class RemoveGreater implements CommandInterface, ArgumentInterface {
     public boolean checkKey(Integer key) {
         CollectionManager manager = CollectionManager.getManager();
         if (manager.getCollection() == null) return false;
-        if (manager.getCollection().containsKey(key)) return true;
+        if (manager.containsKey(key)) return true;
         return false;
     }
 
@@ -41,7 +41,7 @@ public class RemoveLower implements CommandInterface, ArgumentInterface {
                 CollectionManager manager = CollectionManager.getManager();
                 if (manager.getCollection() == null) throw new NullCollectionException("Неожиданная ошибка, null коллекция!");
                     
-                int number = manager.removeKeys(key, false);
+                int number = manager.removeKeys(key, true);
                 if (number >= 0) System.out.println(number + " элементов удалено.");
             } catch(InvalidArgumentException ex) {
                 System.out.println(ex.getMessage());
@@ -102,7 +102,7 @@ public class RemoveLower implements CommandInterface, ArgumentInterface {
     public boolean checkKey(Integer key) {
         CollectionManager manager = CollectionManager.getManager();
         if (manager.getCollection() == null) return false;
-        if (manager.getCollection().containsKey(key)) return true;
+        if (manager.containsKey(key)) return true;
         return false;
     }
 
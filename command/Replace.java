@@ -54,8 +54,8 @@ public class Replace implements CommandInterface, ArgumentInterface {
                 CollectionManager manager = CollectionManager.getManager();
                 if (manager.getCollection() == null) throw new NullCollectionException("Ошибка, null коллекция!");
                 
-                if (manager.checkElement(key, element)) manager.updateCollection(key, element);
-                System.out.println("Значение было заменено.");
+                if (manager.replaceIfGreater(key, manager.makeElement(element))) System.out.println("Значение было заменено.");
+                else System.out.println("Новое значение не больше текущего, замена не выполнена.");
             }
             catch(InvalidArgumentException ex) {
                 System.out.println(ex.getMessage());
@@ -80,15 +80,14 @@ public class Replace implements CommandInterface, ArgumentInterface {
             key = Integer.valueOf(tokens[1]);
             
             try {
-                if (!checkKey(key)) throw new InvalidArgumentException("Элемент с этим ключом уже существует!");
+                if (!checkKey(key)) throw new InvalidArgumentException("Элемента с этим ключом не существует!");
                 
                 element = readScriptElement();
                 CollectionManager manager = CollectionManager.getManager();
                 if (manager.getCollection() == null) throw new NullCollectionException("Ошибка, null коллекция!");
                 
-                manager.checkElement(key, element);
-                manager.updateCollection(key, element);
-                System.out.println("Значение было заменено.");
+                if (manager.replaceIfGreater(key, manager.makeElement(element))) System.out.println("Значение было заменено.");
+                else System.out.println("Новое значение не больше текущего, замена не выполнена.");
             }
             catch(ScriptException ex) {
                 System.out.println(ex.getMessage());
@@ -149,7 +148,7 @@ public class Replace implements CommandInterface, ArgumentInterface {
     public boolean checkKey(Integer key) {
         CollectionManager manager = CollectionManager.getManager();
         if (manager.getCollection() == null) return false;
-        if (manager.getCollection().containsKey(key)) return true;
+        if (manager.containsKey(key)) return true;
         return false;
     }
 
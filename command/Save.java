@@ -4,7 +4,7 @@ import collectionManager.CollectionManager;
 import commandManager.CommandInterface;
 import exceptions.InvalidArgumentException;
 import exceptions.NullCollectionException;
-import fileManager.XMLwriter;
+import fileManager.FileManager;
 
 /**
  * Команда для сохранения коллекции в XML файл.
@@ -17,11 +17,14 @@ import fileManager.XMLwriter;
 public class Save implements CommandInterface {
     
     /**
-     * Выполняет сохранение коллекции в XML файл.
+     * Выполняет сохранение коллекции в файл.
+     * Без аргумента коллекция сохраняется в текущем формате, аргумент xml или bin
+     * переключает формат хранения, а xml.gz или bin.gz - то же со сжатием gzip.
+     * Если изменений немного, записываются только они.
      * Проверяет корректность аргументов и существование коллекции.
      * 
      * @param tokens массив строковых параметров команды
-     * @throws InvalidArgumentException если переданы аргументы
+     * @throws InvalidArgumentException если передан неизвестный формат
      * @throws NullCollectionException если коллекция пуста
      */
     @Override
@@ -31,9 +34,23 @@ public class Save implements CommandInterface {
             try {
                 if (manager.getCollection() == null) throw new NullCollectionException("Невозможно сохранить, null коллекция!");
                 
-                XMLwriter writer = new XMLwriter();
-                writer.writeMapToXML(manager.getCollection(), "collection.xml");
-                System.out.println("XML файл успешно создан!");
+                FileManager fileManager = FileManager.getManager();
+                boolean full;
+                if (tokens.length == 1) full = fileManager.save();
+                else if (tokens[1].equals("xml")) full = fileManager.save(false, false);
+                else if (tokens[1].equals("bin")) full = fileManager.save(true, false);
+                else if (tokens[1].equals("xml.gz")) full = fileManager.save(false, true);
+                else if (tokens[1].equals("bin.gz")) full = fileManager.save(true, true);
+                else throw new InvalidArgumentException("Формат должен быть xml, bin, xml.gz или bin.gz!");
+                
+                if (!full) System.out.println("Изменения дописаны в файл " + fileManager.getFileName() + ".delta");
+                else if (fileManager.isCompressed()) System.out.println("Сжатый файл успешно создан: " + fileManager.getFileName());
+                else if (fileManager.isBinary()) System.out.println("Двоичный снимок успешно создан: " + fileManager.getFileName());
+                else System.out.println("XML файл успешно создан!");
+            }
+            catch (InvalidArgumentException ex) {
+                System.out.println(ex.getMessage());
+                return;
             }
             catch (NullCollectionException ex) {
                 System.out.println(ex.getMessage());
@@ -63,12 +80,12 @@ public class Save implements CommandInterface {
      */
     @Override
     public String getDescription() {
-        return "save: сохранить коллекцию в файл.";
+        return "save [xml|bin|xml.gz|bin.gz]: сохранить коллекцию в файл (без аргумента - в текущем формате).";
     }
 
     /**
      * Проверяет корректность количества аргументов команды.
-     * Команда не должна иметь аргументов.
+     * Команда может иметь один необязательный аргумент - формат файла.
      * 
      * @param length количество переданных аргументов
      * @return true если количество аргументов корректно, false если нет
@@ -76,7 +93,7 @@ public class Save implements CommandInterface {
     @Override
     public boolean checkArguments(int length) {
         try {
-            if (length != 1) throw new InvalidArgumentException("Аргументы не требуются!");
+            if (length > 2) throw new InvalidArgumentException("Лишние аргументы!");
         }
         catch(InvalidArgumentException ex) {
             System.out.println(ex.getMessage());
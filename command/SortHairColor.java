@@ -7,6 +7,7 @@ import exceptions.NullCollectionException;
 
 /**
  * Команда для сортировки элементов коллекции по цвету волос.
+ * Выводит цвета волос в алфавитном порядке с количеством людей с каждым цветом.
  * Реализует интерфейс CommandInterface для обработки команды сортировки.
  * 
  * @author Ekaterina
@@ -61,7 +62,7 @@ public class SortHairColor implements CommandInterface {
      */
     @Override
     public String getDescription() {
-        return "sort_hair: вывести отсортированные значения цвета волос.";
+        return "sort_hair: вывести отсортированные значения цвета волос с их количеством.";
     }
 
     /**
@@ -0,0 +1,95 @@
+package command;
+
+import collectionManager.CollectionManager;
+import commandManager.CommandInterface;
+import exceptions.InvalidArgumentException;
+import exceptions.NullCollectionException;
+
+/**
+ * Команда для вывода статистики роста элементов коллекции.
+ * Реализует интерфейс CommandInterface для обработки командной строки.
+ * 
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class Stats implements CommandInterface {
+    private static final int DEFAULT_BINS = 10;
+
+    /**
+     * Выводит количество, сумму, наименьший, наибольший и средний рост, процентили и гистограмму.
+     * Необязательный аргумент задает наибольшее количество интервалов гистограммы.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void execute(String[] tokens) {
+        if (checkArguments(tokens.length)) {
+            CollectionManager manager = CollectionManager.getManager();
+            try {
+                if (manager.getCollection() == null) throw new NullCollectionException("Null коллекция!");
+                int bins = tokens.length == 2 ? parseBins(tokens[1]) : DEFAULT_BINS;
+                if (!manager.printHeightStats(bins)) System.out.println("Коллекция пуста!");
+            }
+            catch (InvalidArgumentException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+            catch (NullCollectionException ex) {
+                System.out.println(ex.getMessage());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Выполняет ту же логику, что и метод execute(), но в контексте выполнения скрипта.
+     * 
+     * @param tokens массив строковых параметров команды
+     */
+    @Override
+    public void executeScript(String[] tokens) {
+        execute(tokens);
+    }
+
+    /**
+     * Возвращает краткое описание команды.
+     * 
+     * @return строка описания команды
+     */
+    @Override
+    public String getDescription() {
+        return "stats [bins]: вывести статистику роста элементов коллекции с гистограммой из bins интервалов (по умолчанию " + DEFAULT_BINS + ").";
+    }
+
+    /**
+     * Проверяет корректность количества аргументов команды.
+     * Команда может иметь один необязательный аргумент - количество интервалов гистограммы.
+     * 
+     * @param length количество переданных аргументов
+     * @return true если количество аргументов корректно, false если нет
+     */
+    @Override
+    public boolean checkArguments(int length) {
+        try {
+            if (length > 2) throw new InvalidArgumentException("Лишние аргументы!");
+        }
+        catch(InvalidArgumentException ex) {
+            System.out.println(ex.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    private static int parseBins(String token) throws InvalidArgumentException {
+        int value;
+        try {
+            value = Integer.parseInt(token);
+        }
+        catch (NumberFormatException ex) {
+            throw new InvalidArgumentException("Количество интервалов должно быть целым числом!");
+        }
+        if (value <= 0 || value > 1000) throw new InvalidArgumentException("Количество интервалов должно быть от 1 до 1000!");
+        return value;
+    }
+}
@@ -0,0 +1,290 @@
+package commandManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import collection.ColorEye;
+import collection.ColorHair;
+import collection.Coordinates;
+import collection.Location;
+import collection.Person;
+import exceptions.InputException;
+
+/**
+ * Читает записи для массового добавления элементов в коллекцию.
+ * Каждая запись занимает одну строку, поля разделяются точкой с запятой
+ * в том же порядке, что и при вводе команды insert:
+ * имя;X;Y;рост;дата рождения;цвет глаз;цвет волос;X локации;Y локации;Z локации;название локации.
+ * Необязательные поля можно оставить пустыми или указать skip; если не указан X локации,
+ * остальные поля локации можно не писать.
+ * Поля проверяются по тем же правилам, что и в {@link Validator}, но без создания
+ * проверяющего объекта и вывода сообщений для каждого поля: неверная запись пропускается,
+ * а в конце сообщается номер строки. Все записи получают одну дату создания.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class BulkReader {
+    private static final int MAX_REPORTED_ERRORS = 10;
+    private static final int FIELD_COUNT = 11;
+    private static final ColorEye[] EYE_COLORS = ColorEye.values();
+    private static final ColorHair[] HAIR_COLORS = ColorHair.values();
+    private static final int SHARED_STRINGS = 1 << 16;
+    private static final int MAX_PROBES = 8;
+    private static final float[] POWERS_OF_TEN = {1f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f};
+
+    private final LocalDateTime creationDate = LocalDateTime.now();
+
+    private final int[] starts = new int[FIELD_COUNT];
+    private final int[] ends = new int[FIELD_COUNT];
+    private final String[] sharedStrings = new String[SHARED_STRINGS];
+    private Person[] records = new Person[1024];
+    private int count = 0;
+    private int lineNumber = 0;
+    private int errors = 0;
+
+    /**
+     * Читает все записи из потока.
+     *
+     * @param reader Поток строк с записями
+     * @throws IOException при ошибке чтения
+     */
+    public void read(BufferedReader reader) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            readLine(line);
+        }
+    }
+
+    /**
+     * Разбирает одну строку с записью. Пустые строки пропускаются.
+     *
+     * @param line Строка с записью
+     */
+    public void readLine(String line) {
+        lineNumber++;
+        if (line.isBlank()) return;
+        try {
+            Person person = parse(line);
+            if (count == records.length) records = Arrays.copyOf(records, count * 2);
+            records[count++] = person;
+        }
+        catch (InputException ex) {
+            errors++;
+            if (errors <= MAX_REPORTED_ERRORS) System.out.println("Строка " + lineNumber + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Возвращает прочитанные элементы. Действительны первые {@link #getCount()} элементов массива.
+     *
+     * @return Массив элементов
+     */
+    public Person[] getRecords() {
+        return records;
+    }
+
+    /**
+     * Возвращает количество прочитанных верных записей.
+     *
+     * @return Количество записей
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Возвращает количество пропущенных неверных записей.
+     *
+     * @return Количество ошибок
+     */
+    public int getErrors() {
+        return errors;
+    }
+
+    private Person parse(String line) throws InputException {
+        split(line);
+        if (!isLatin(line, 0)) throw new InputException("Имя должно состоять из латинских букв!");
+        float x = parseFloat(line, 1);
+        long y = parseLong(line, 2);
+        if (y <= -273) throw new InputException("Y должно быть > -273!");
+        int height = (int) parseLong(line, 3, Integer.MIN_VALUE, Integer.MAX_VALUE);
+        if (height <= 0) throw new InputException("Рост должен быть > 0!");
+
+        LocalDate birthday = isSkipped(line, 4) ? null : parseDate(line, 4);
+        ColorEye eyeColor = isSkipped(line, 5) ? null : parseColor(line, 5, EYE_COLORS);
+        ColorHair hairColor = isSkipped(line, 6) ? null : parseColor(line, 6, HAIR_COLORS);
+        Location location = null;
+        if (!isSkipped(line, 7)) {
+            long locationX = parseLong(line, 7);
+            float locationY = parseFloat(line, 8);
+            int locationZ = (int) parseLong(line, 9, Integer.MIN_VALUE, Integer.MAX_VALUE);
+            if (!isLatin(line, 10)) throw new InputException("Название локации должно состоять из латинских букв!");
+            location = new Location(locationX, locationY, locationZ, sharedField(line, 10));
+        }
+        return new Person(sharedField(line, 0), new Coordinates(x, y), creationDate, height, birthday, eyeColor, hairColor, location);
+    }
+
+    /**
+     * Находит границы полей строки, разделенных точкой с запятой, без пробелов по краям.
+     * Недостающие поля становятся пустыми. Сами поля не выделяются в отдельные строки,
+     * числа разбираются прямо из строки записи.
+     */
+    private void split(String line) throws InputException {
+        int field = 0;
+        int start = 0;
+        for (int i = 0; i <= line.length(); i++) {
+            if (i < line.length() && line.charAt(i) != ';') continue;
+            if (field == FIELD_COUNT) throw new InputException("Лишние поля в записи!");
+            int from = start;
+            int to = i;
+            while (from < to && line.charAt(from) <= ' ') from++;
+            while (to > from && line.charAt(to - 1) <= ' ') to--;
+            starts[field] = from;
+            ends[field] = to;
+            field++;
+            start = i + 1;
+        }
+        while (field < FIELD_COUNT) {
+            starts[field] = 0;
+            ends[field] = 0;
+            field++;
+        }
+    }
+
+    private String field(String line, int field) {
+        return line.substring(starts[field], ends[field]);
+    }
+
+    /**
+     * Возвращает поле строкой, используя уже созданную строку с тем же текстом, если она есть.
+     * Имена и названия локаций в больших файлах обычно повторяются, поэтому повторы
+     * не создают новых строк и занимают память коллекции один раз.
+     * Таблица строк ограничена: когда она заполнена, новые строки просто создаются.
+     */
+    private String sharedField(String line, int field) {
+        int from = starts[field];
+        int length = ends[field] - from;
+        int hash = 0;
+        for (int i = from; i < ends[field]; i++) {
+            hash = 31 * hash + line.charAt(i);
+        }
+        int mask = sharedStrings.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        for (int probe = 0; probe < MAX_PROBES; probe++, slot = (slot + 1) & mask) {
+            String shared = sharedStrings[slot];
+            if (shared == null) {
+                shared = field(line, field);
+                sharedStrings[slot] = shared;
+                return shared;
+            }
+            if (shared.length() == length && line.startsWith(shared, from)) return shared;
+        }
+        return field(line, field);
+    }
+
+    private boolean isSkipped(String line, int field) {
+        int length = ends[field] - starts[field];
+        return length == 0 || (length == 4 && line.startsWith("skip", starts[field]));
+    }
+
+    private boolean isLatin(String line, int field) {
+        if (starts[field] == ends[field]) return false;
+        for (int i = starts[field]; i < ends[field]; i++) {
+            char c = line.charAt(i);
+            if ((c < 'a' || c > 'z') && (c < 'A' || c > 'Z')) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Разбирает число с плавающей точкой. Десятичная запись, в которой не больше
+     * 2^24 в мантиссе и не больше 10 знаков после точки, вычисляется одним делением float:
+     * оба операнда представимы точно, поэтому результат округляется так же, как в Float.parseFloat.
+     * Остальные записи разбираются через Float.parseFloat.
+     */
+    private float parseFloat(String line, int field) throws InputException {
+        int i = starts[field];
+        int end = ends[field];
+        boolean negative = i < end && line.charAt(i) == '-';
+        if (negative || (i < end && line.charAt(i) == '+')) i++;
+        int mantissa = 0;
+        int digits = 0;
+        int scale = -1;
+        for (; i < end; i++) {
+            char c = line.charAt(i);
+            if (c == '.' && scale < 0) scale = 0;
+            else if (c >= '0' && c <= '9' && mantissa * 10 + (c - '0') <= (1 << 24)) {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (scale >= 0) scale++;
+            }
+            else break;
+        }
+        if (i == end && digits > 0 && scale <= 10) {
+            float value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+            return negative ? -value : value;
+        }
+        try {
+            return Float.parseFloat(field(line, field));
+        }
+        catch (NumberFormatException ex) {
+            throw new InputException("Неверный формат числа: " + field(line, field));
+        }
+    }
+
+    private long parseLong(String line, int field) throws InputException {
+        return parseLong(line, field, Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    private long parseLong(String line, int field, long min, long max) throws InputException {
+        try {
+            long value = Long.parseLong(line, starts[field], ends[field], 10);
+            if (value < min || value > max) throw new NumberFormatException();
+            return value;
+        }
+        catch (NumberFormatException ex) {
+            throw new InputException("Неверный формат числа: " + field(line, field));
+        }
+    }
+
+    private <T extends Enum<T>> T parseColor(String line, int field, T[] values) throws InputException {
+        int length = ends[field] - starts[field];
+        for (T value : values) {
+            String name = value.name();
+            if (name.length() == length && line.startsWith(name, starts[field])) return value;
+        }
+        throw new InputException("Значение цвета не найдено: " + field(line, field));
+    }
+
+    /**
+     * Разбирает дату в формате YYYY-MM-DD. Обычная запись из десяти символов
+     * разбирается без форматтера, остальные - через LocalDate.parse.
+     */
+    private LocalDate parseDate(String line, int field) throws InputException {
+        int from = starts[field];
+        try {
+            if (ends[field] - from == 10 && line.charAt(from + 4) == '-' && line.charAt(from + 7) == '-'
+                    && isDigits(line, from, from + 4) && isDigits(line, from + 5, from + 7) && isDigits(line, from + 8, from + 10)) {
+                return LocalDate.of(Integer.parseInt(line, from, from + 4, 10), Integer.parseInt(line, from + 5, from + 7, 10),
+                    Integer.parseInt(line, from + 8, from + 10, 10));
+            }
+            return LocalDate.parse(field(line, field));
+        }
+        catch (DateTimeException ex) {
+            throw new InputException("Неверный формат даты: " + field(line, field));
+        }
+    }
+
+    private static boolean isDigits(String field, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (field.charAt(i) < '0' || field.charAt(i) > '9') return false;
+        }
+        return true;
+    }
+}
@@ -1,9 +1,11 @@
 package commandManager;
 
+import java.io.IOException;
 import java.util.HashMap;
 
 import command.*;
 import exceptions.UnknownCommandException;
+import fileManager.FileManager;
 
 /**
  * Менеджер команд, отвечающий за хранение и выполнение всех доступных команд.
@@ -37,7 +39,18 @@ public class CommandManager {
         commands.put("sort_print", new SortPrint());
         commands.put("unique_hair", new UniqueHairColor());
         commands.put("sort_hair", new SortHairColor());
+        commands.put("sort_eye", new SortEyeColor());
         commands.put("replace_if_greater", new Replace());
+        commands.put("bulk_insert", new BulkInsert());
+        commands.put("nearest", new Nearest());
+        commands.put("in_area", new InArea());
+        commands.put("in_box", new InBox());
+        commands.put("in_radius", new InRadius());
+        commands.put("find_name", new FindName());
+        commands.put("find_prefix", new FindPrefix());
+        commands.put("born_between", new BornBetween());
+        commands.put("created_last", new CreatedLast());
+        commands.put("stats", new Stats());
     }
     
     /**
@@ -62,6 +75,7 @@ public class CommandManager {
             if (command == null) throw new UnknownCommandException("Вы ввели неизвестную команду! Используйте help, чтобы посмотреть список доступных команд.");
             else {
                 command.execute(tokens);
+                commitChanges();
             }
         }
         catch(UnknownCommandException ex) {
@@ -82,10 +96,23 @@ public class CommandManager {
             if (command == null) throw new UnknownCommandException("Пропуск неизвестной команды.");
             else {
                 command.executeScript(tokens);
+                commitChanges();
             }
         }
         catch(UnknownCommandException ex) {
             System.out.println(ex.getMessage());
         }
     }
+
+    /**
+     * Записывает на диск журнал изменений, сделанных выполненной командой.
+     */
+    private void commitChanges() {
+        try {
+            FileManager.getManager().commit();
+        }
+        catch(IOException ex) {
+            System.out.println("Не удалось записать журнал изменений!");
+        }
+    }
 }
\ No newline at end of file
@@ -86,6 +86,16 @@ public class InputScript implements InputInterface {
         else throw new ScriptException("Не обнаружена следующая строка! Пропуск команды.");
     }
 
+    /**
+     * Читает следующую строку скрипта без проверки.
+     * 
+     * @return строка или null, если скрипт закончился
+     */
+    public String readLine() {
+        if (!sc.hasNextLine()) return null;
+        return sc.nextLine();
+    }
+
     /**
      * Закрывает сканер для освобождения системных ресурсов.
      */
@@ -0,0 +1,35 @@
+package commandManager;
+
+import exceptions.InvalidArgumentException;
+
+/**
+ * Разбор числовых аргументов команд.
+ * 
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class NumberParser {
+
+    /**
+     * Разбирает аргумент команды как число с плавающей точкой.
+     * Значение NaN не принимается никогда, бесконечность - только если finite равно false.
+     * 
+     * @param token строка аргумента
+     * @param finite true - требовать конечное число
+     * @return значение аргумента
+     * @throws InvalidArgumentException если аргумент не является допустимым числом
+     */
+    public static double parseDouble(String token, boolean finite) throws InvalidArgumentException {
+        double value;
+        try {
+            value = Double.parseDouble(token);
+        }
+        catch (NumberFormatException ex) {
+            throw new InvalidArgumentException("Аргумент должен быть числом: " + token);
+        }
+        if (Double.isNaN(value)) throw new InvalidArgumentException("Аргумент должен быть числом: " + token);
+        if (finite && Double.isInfinite(value)) throw new InvalidArgumentException("Аргумент должен быть конечным числом: " + token);
+        return value;
+    }
+}
@@ -0,0 +1,35 @@
+package exceptions;
+
+import java.io.IOException;
+
+/**
+ * Исключение, возникающее, если контрольная сумма файла коллекции не совпадает с записанной.
+ * Означает, что файл поврежден или изменен после сохранения.
+ * 
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class ChecksumException extends IOException {
+    private static final long serialVersionUID = 3868205930476213375L;
+    private String message;
+
+    /**
+     * Создает исключение с указанным сообщением об ошибке.
+     * 
+     * @param message текстовое описание ошибки
+     */
+    public ChecksumException(String message) {
+        this.message = message;
+    }
+
+    /**
+     * Возвращает сообщение об ошибке.
+     * 
+     * @return текстовое описание ошибки
+     */
+    @Override
+    public String getMessage() {
+        return this.message;
+    }
+}
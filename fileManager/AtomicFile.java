@@ -0,0 +1,113 @@
+package fileManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Вспомогательные методы для сохранения файла коллекции без риска его потерять.
+ * Новая версия файла пишется во временный файл, синхронизируется с диском
+ * и переименованием атомарно заменяет прежнюю. Прежняя версия остается
+ * в файле с расширением .bak, чтобы ее можно было прочитать, если новая повреждена.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class AtomicFile {
+
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	private AtomicFile() {}
+
+	/**
+     * Возвращает путь к временному файлу, в который пишется новая версия файла.
+     *
+     * @param filename имя файла коллекции
+     * @return путь к временному файлу
+     */
+	public static Path tempPath(String filename) {
+		return Path.of(filename + ".tmp");
+	}
+
+	/**
+     * Возвращает путь к предыдущей версии файла.
+     *
+     * @param filename имя файла коллекции
+     * @return путь к файлу предыдущей версии
+     */
+	public static Path backupPath(String filename) {
+		return Path.of(filename + ".bak");
+	}
+
+	/**
+     * Заменяет файл записанным и синхронизированным временным файлом.
+     * Прежняя версия сохраняется жесткой ссылкой .bak, если файловая система
+     * их поддерживает, иначе переименовывается в .bak. После переименования
+     * синхронизируется каталог, чтобы новое имя пережило сбой питания.
+     *
+     * @param filename имя файла коллекции
+     * @throws IOException при ошибке переименования
+     */
+	public static void replace(String filename) throws IOException {
+		Path target = Path.of(filename);
+		Path backup = backupPath(filename);
+		if (Files.exists(target)) {
+			Files.deleteIfExists(backup);
+			try {
+				Files.createLink(backup, target);
+			}
+			catch (IOException | UnsupportedOperationException ex) {
+				Files.move(target, backup, StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		Files.move(tempPath(filename), target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		syncDirectory(target);
+	}
+
+	/**
+     * Вычисляет CRC32 первых end байт файла.
+     *
+     * @param channel канал файла
+     * @param end количество байт от начала файла
+     * @return значение контрольной суммы
+     * @throws IOException при ошибке чтения
+     */
+	public static long checksum(FileChannel channel, long end) throws IOException {
+		CRC32 crc = new CRC32();
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		long position = 0;
+		while (position < end) {
+			buffer.clear();
+			if (end - position < buffer.capacity()) buffer.limit((int) (end - position));
+			int read = channel.read(buffer, position);
+			if (read < 0) break;
+			buffer.flip();
+			crc.update(buffer);
+			position += read;
+		}
+		return crc.getValue();
+	}
+
+	/**
+     * Синхронизирует с диском каталог, в котором лежит файл.
+     * Там, где каталог нельзя открыть как файл, синхронизация пропускается.
+     *
+     * @param file путь к файлу
+     */
+	private static void syncDirectory(Path file) {
+		Path directory = file.toAbsolutePath().getParent();
+		if (directory == null) return;
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		}
+		catch (IOException ex) {
+			// Не все системы позволяют синхронизировать каталог.
+		}
+	}
+}
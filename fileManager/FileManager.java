@@ -0,0 +1,374 @@
+package fileManager;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import collectionManager.ChangeTracker;
+import collectionManager.CollectionManager;
+import collectionManager.PersonMap;
+import collectionManager.Snapshot;
+
+/**
+ * Класс, отвечающий за файл, в котором хранится коллекция.
+ * Запоминает имя файла и его формат (XML или двоичный снимок, со сжатием или без),
+ * выбирает нужные классы для чтения и записи и ведет журнал изменений,
+ * сделанных после последнего сохранения.
+ * Рядом со снимком хранится файл дельт: при сохранении в него дописываются
+ * только измененные и удаленные элементы, а когда дельт становится много,
+ * коллекция целиком переписывается в снимок.
+ * Реализует паттерн Singleton для обеспечения единого экземпляра менеджера.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class FileManager {
+	private static FileManager fileMan = new FileManager();
+	private String fileName = "collection.xml";
+	private boolean binary = false;
+	private boolean compressed = false;
+	private Journal journal;
+	private int deltaRecords = 0;
+
+	/**
+	 * Читать ли двоичный снимок по требованию, отображая файл в память.
+	 * Включается параметром запуска -Dlab5.mmap=true.
+	 * В Windows не поддерживается: отображенный файл нельзя заменить, пока коллекция
+	 * читает из него, и полное сохранение завершалось бы ошибкой.
+	 */
+	private boolean mapped = mappedSupported();
+
+	/**
+	 * Минимальное количество записей в файле дельт, после которого выполняется полное сохранение.
+	 */
+	private static final int MIN_COMPACTION_RECORDS = 1024;
+
+	/**
+     * Проверяет, включено ли отображение снимка в память и поддерживается ли оно.
+     * В Windows параметр отклоняется с сообщением, и снимок читается целиком.
+     *
+     * @return true если снимок нужно отображать в память
+     */
+	private static boolean mappedSupported() {
+		if (!Boolean.getBoolean("lab5.mmap")) return false;
+		if (System.getProperty("os.name", "").startsWith("Windows")) {
+			System.out.println("Параметр lab5.mmap не поддерживается в Windows, снимок будет прочитан целиком.");
+			return false;
+		}
+		return true;
+	}
+
+	/**
+     * Возвращает единственный экземпляр менеджера файлов.
+     *
+     * @return Единственный экземпляр FileManager
+     */
+	public static FileManager getManager() {
+		return fileMan;
+	}
+
+	/**
+     * Загружает коллекцию из файла. Формат определяется по сигнатуре в начале файла.
+     * Если файл поврежден или отсутствует, но рядом есть его предыдущая версия (.bak),
+     * загружается она, а поврежденный файл переименовывается в .corrupt, чтобы
+     * следующее сохранение записало коллекцию целиком и не затерло предыдущую версию.
+     * Файл дельт и журнал записаны поверх поврежденного снимка, а не предыдущей версии,
+     * поэтому в этом случае они не применяются, а переименовываются в .delta.corrupt
+     * и .journal.corrupt рядом с поврежденным файлом.
+     * После чтения снимка поверх него применяются файл дельт и журнал изменений,
+     * и журнал начинает записывать новые изменения коллекции.
+     * Имя файла запоминается и используется при последующих сохранениях,
+     * даже если файл не удалось прочитать.
+     *
+     * @param fileName путь к файлу с коллекцией
+     * @throws FileNotFoundException если файл не найден
+     * @throws Exception при ошибке чтения или разбора файла
+     */
+	public synchronized void load(String fileName) throws Exception {
+		this.fileName = fileName;
+		this.binary = Compression.stripExtension(fileName).endsWith(".bin");
+		this.compressed = fileName.endsWith(Compression.EXTENSION);
+		Exception failure = null;
+		try {
+			readSnapshot(fileName);
+		}
+		catch (Exception ex) {
+			failure = ex;
+		}
+
+		File backup = AtomicFile.backupPath(fileName).toFile();
+		boolean restoredBackup = false;
+		if (failure != null && backup.exists()) {
+			try {
+				readSnapshot(backup.getPath());
+				restoredBackup = true;
+				failure = null;
+			}
+			catch (Exception ex) {
+				// Предыдущая версия тоже не читается: сообщаем об исходной ошибке.
+			}
+		}
+		if (restoredBackup) {
+			System.out.println("Файл с коллекцией поврежден или отсутствует, загружена предыдущая сохраненная версия "
+					+ backup.getPath() + ".");
+			if (moveAside(fileName, fileName + ".corrupt")) {
+				System.out.println("Поврежденный файл сохранен как " + fileName + ".corrupt.");
+			}
+			if (moveAside(fileName + ".delta", fileName + ".delta.corrupt")) {
+				System.out.println("Изменения из файла дельт не восстановлены, файл сохранен как " + fileName + ".delta.corrupt.");
+			}
+			if (moveAside(fileName + ".journal", fileName + ".journal.corrupt")) {
+				System.out.println("Изменения из журнала не восстановлены, журнал сохранен как " + fileName + ".journal.corrupt.");
+			}
+			System.out.println("Изменения, сохраненные после этой версии, в коллекцию не загружены.");
+		}
+
+		CollectionManager manager = CollectionManager.getManager();
+		deltaRecords = 0;
+		if (!restoredBackup && new File(fileName + ".delta").exists()) {
+			Journal delta = new Journal(fileName + ".delta");
+			try {
+				deltaRecords = delta.replay(manager);
+			}
+			finally {
+				delta.close();
+			}
+		}
+		manager.getChanges().reset();
+
+		openJournal(!restoredBackup);
+		if (failure != null) throw failure;
+	}
+
+	/**
+     * Переименовывает файл, если он существует, заменяя файл с новым именем.
+     *
+     * @param path путь к файлу
+     * @param target новый путь
+     * @return true если файл был переименован
+     * @throws IOException при ошибке переименования
+     */
+	private static boolean moveAside(String path, String target) throws IOException {
+		File file = new File(path);
+		if (!file.exists()) return false;
+		Files.move(file.toPath(), Path.of(target), StandardCopyOption.REPLACE_EXISTING);
+		return true;
+	}
+
+	/**
+     * Читает снимок коллекции из файла, определяя его формат и сжатие по сигнатуре.
+     *
+     * @param path путь к файлу снимка
+     * @throws FileNotFoundException если файл не найден
+     * @throws Exception при ошибке чтения или разбора файла
+     */
+	private void readSnapshot(String path) throws Exception {
+		if (!new File(path).exists()) throw new FileNotFoundException(path);
+
+		compressed = Compression.isCompressed(path);
+		binary = BinaryReader.isBinary(path);
+		if (binary && mapped) new BinaryReader().mapMapFromBinary(path);
+		else if (binary) new BinaryReader().readMapFromBinary(path);
+		else new XMLreader().readMapFromXML(path);
+	}
+
+	/**
+     * Сохраняет изменения коллекции в текущий файл в текущем формате.
+     * Если снимок уже существует и изменений немного, они дописываются в файл дельт;
+     * иначе коллекция целиком записывается в снимок, а файл дельт удаляется.
+     * После успешной записи из журнала удаляются записи, вошедшие в сохранение.
+     *
+     * @return true если коллекция записана целиком, false если записаны только изменения
+     * @throws Exception при ошибке записи файла
+     */
+	public synchronized boolean save() throws Exception {
+		return persist(fileName, binary, compressed, false);
+	}
+
+	/**
+     * Сохраняет коллекцию, если она менялась с момента последнего сохранения.
+     * Вызывается из фонового потока автосохранения.
+     * Учет изменений меняется только под блокировкой записи, поэтому для проверки
+     * достаточно блокировки чтения, и команды, читающие коллекцию, не ждут автосохранения;
+     * блокировка записи берется только в {@link #persist}, если сохранять есть что.
+     *
+     * @throws Exception при ошибке записи файла
+     */
+	public synchronized void autosave() throws Exception {
+		CollectionManager manager = CollectionManager.getManager();
+		manager.getLock().readLock().lock();
+		try {
+			ChangeTracker changes = manager.getChanges();
+			if (changes.size() == 0 && !changes.isCleared()) return;
+		}
+		finally {
+			manager.getLock().readLock().unlock();
+		}
+		persist(fileName, binary, compressed, false);
+	}
+
+	/**
+     * Переключает формат хранения и сохраняет коллекцию.
+     * Расширение имени файла заменяется на соответствующее формату,
+     * при смене формата коллекция записывается целиком.
+     * Новое имя и формат запоминаются только после успешной записи: если запись
+     * не удалась, менеджер продолжает работать с прежним файлом, его дельтами и журналом.
+     *
+     * @param binary true - двоичный снимок, false - XML
+     * @param compressed true - сжимать файл в формат gzip
+     * @return true если коллекция записана целиком, false если записаны только изменения
+     * @throws Exception при ошибке записи файла
+     */
+	public synchronized boolean save(boolean binary, boolean compressed) throws Exception {
+		if (this.binary == binary && this.compressed == compressed) return persist(fileName, binary, compressed, false);
+
+		String base = Compression.stripExtension(fileName);
+		if (base.endsWith(".xml") || base.endsWith(".bin")) base = base.substring(0, base.length() - 4);
+		String target = base + (binary ? ".bin" : ".xml") + (compressed ? Compression.EXTENSION : "");
+		persist(target, binary, compressed, true);
+		fileName = target;
+		this.binary = binary;
+		this.compressed = compressed;
+		openJournal(false);
+		return true;
+	}
+
+	/**
+     * Сохраняет коллекцию по состоянию на момент вызова в заданный файл.
+     * Под блокировкой менеджера коллекции забираются накопленные изменения,
+     * снимок карты и позиция журнала; сама запись идет без блокировки,
+     * поэтому коллекцию можно менять, пока сохранение не завершено.
+     * Если запись не удалась, изменения возвращаются в учет.
+     *
+     * @param target путь к файлу снимка
+     * @param binary true - двоичный снимок, false - XML
+     * @param compressed true - сжимать файл в формат gzip
+     * @param forceFull true - записать коллекцию целиком независимо от количества изменений
+     * @return true если коллекция записана целиком, false если записаны только изменения
+     * @throws Exception при ошибке записи файла
+     */
+	private boolean persist(String target, boolean binary, boolean compressed, boolean forceFull) throws Exception {
+		CollectionManager manager = CollectionManager.getManager();
+		Snapshot snapshot;
+		ChangeTracker changes;
+		long mark;
+		manager.getLock().writeLock().lock();
+		try {
+			changes = manager.getChanges().take();
+			snapshot = manager.openSnapshot();
+			mark = journal == null ? 0 : journal.mark();
+		}
+		finally {
+			manager.getLock().writeLock().unlock();
+		}
+
+		PersonMap map = snapshot.getMap();
+		int limit = Math.max(MIN_COMPACTION_RECORDS, map.size() / 4);
+		boolean full = forceFull || changes.isCleared() || !new File(target).exists()
+				|| deltaRecords + changes.size() > limit;
+		try {
+			if (full) {
+				if (binary) new BinaryWriter().writeMapToBinary(map, target, compressed);
+				else new XMLwriter().writeMapToXML(map, target, compressed);
+				new File(target + ".delta").delete();
+				deltaRecords = 0;
+			}
+			else {
+				Journal delta = new Journal(target + ".delta");
+				try {
+					for (Integer key : changes.getDeletedKeys()) {
+						delta.onRemove(key, null);
+					}
+					for (Integer key : changes.getDirtyKeys()) {
+						delta.onPut(key, null, map.get(key));
+					}
+				}
+				finally {
+					delta.close();
+				}
+				deltaRecords += changes.size();
+			}
+			if (journal != null) journal.discardBefore(mark);
+		}
+		catch (Exception ex) {
+			manager.getLock().writeLock().lock();
+			try {
+				manager.getChanges().restore(changes);
+			}
+			finally {
+				manager.getLock().writeLock().unlock();
+			}
+			throw ex;
+		}
+		finally {
+			snapshot.close();
+		}
+		return full;
+	}
+
+	/**
+     * Записывает на диск изменения, накопленные в журнале.
+     * Вызывается после выполнения каждой команды, так что все изменения,
+     * сделанные одной командой, синхронизируются с диском один раз.
+     *
+     * @throws IOException при ошибке записи журнала
+     */
+	public void commit() throws IOException {
+		if (journal != null) journal.commit();
+	}
+
+	/**
+     * Открывает журнал изменений для текущего файла коллекции и подключает его к CollectionManager.
+     * Журнал предыдущего файла закрывается и удаляется.
+     *
+     * @param replay true - применить записи журнала к коллекции,
+     *               false - очистить журнал, так как коллекция только что сохранена
+     * @throws IOException при ошибке чтения или записи журнала
+     */
+	private void openJournal(boolean replay) throws IOException {
+		CollectionManager manager = CollectionManager.getManager();
+		if (journal != null) {
+			manager.removeListener(journal);
+			journal.close();
+			new File(journal.getFileName()).delete();
+		}
+		journal = new Journal(fileName + ".journal");
+		if (replay) {
+			int count = journal.replay(manager);
+			if (count > 0) System.out.println("Из журнала восстановлено изменений: " + count);
+		}
+		else journal.reset();
+		manager.addListener(journal);
+	}
+
+	/**
+     * Возвращает имя файла, в котором хранится коллекция.
+     *
+     * @return Имя файла
+     */
+	public String getFileName() {
+		return fileName;
+	}
+
+	/**
+     * Проверяет, хранится ли коллекция в двоичном формате.
+     *
+     * @return true если используется двоичный снимок
+     */
+	public boolean isBinary() {
+		return binary;
+	}
+
+	/**
+     * Проверяет, сжимается ли файл коллекции.
+     *
+     * @return true если файл сжат в формат gzip
+     */
+	public boolean isCompressed() {
+		return compressed;
+	}
+}
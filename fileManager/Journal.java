@@ -0,0 +1,290 @@
+package fileManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import collection.Person;
+import collectionManager.CollectionManager;
+import collectionManager.ListenerInterface;
+
+/**
+ * Журнал изменений коллекции, записываемый только в конец файла.
+ * Каждое изменение, прошедшее через CollectionManager, записывается компактной записью:
+ * [тип] и, в зависимости от типа, запись {@link PersonCodec} или ключ.
+ * Записи копятся в буфере и попадают на диск при вызове {@link #commit()};
+ * одна синхронизация с диском покрывает все записи, накопленные к этому моменту.
+ * При запуске журнал применяется поверх последнего сохраненного снимка.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class Journal implements ListenerInterface {
+
+	private static final byte PUT = 1;
+	private static final byte REMOVE = 2;
+	private static final byte CLEAR = 3;
+
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	private final String fileName;
+	private FileChannel channel;
+	private final Object syncLock = new Object();
+	private ByteBuffer pending = ByteBuffer.allocate(BUFFER_SIZE);
+	private long appended;
+	private long written;
+	private long synced;
+	private IOException failure;
+
+	/**
+     * Открывает файл журнала, создавая его при необходимости.
+     * Новые записи добавляются в конец файла.
+     *
+     * @param fileName путь к файлу журнала
+     * @throws IOException если файл не удалось открыть
+     */
+	public Journal(String fileName) throws IOException {
+		this.fileName = fileName;
+		this.channel = FileChannel.open(Path.of(fileName),
+			StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		channel.position(channel.size());
+	}
+
+	/**
+     * Возвращает путь к файлу журнала.
+     *
+     * @return путь к файлу журнала
+     */
+	public String getFileName() {
+		return fileName;
+	}
+
+	/**
+     * Применяет все записи журнала к коллекции.
+     * Должен вызываться до регистрации журнала как слушателя, чтобы записи не дублировались.
+     * Оборванная последняя запись (например, после сбоя во время записи) отбрасывается.
+     *
+     * @param manager менеджер коллекции, к которой применяются изменения
+     * @return количество примененных записей
+     * @throws IOException при ошибке чтения журнала
+     */
+	public synchronized int replay(CollectionManager manager) throws IOException {
+		long size = channel.size();
+		if (size == 0) return 0;
+		if (size > Integer.MAX_VALUE) throw new IOException("Журнал изменений слишком велик: " + size);
+
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		int count = 0;
+		int valid = 0;
+		try {
+			while (buffer.hasRemaining()) {
+				byte type = buffer.get();
+				if (type == PUT) {
+					if (buffer.remaining() < 8) break;
+					int length = PersonCodec.peekSize(buffer);
+					if (length < 8 || length > buffer.remaining()) break;
+					int key = PersonCodec.peekKey(buffer);
+					manager.putElement(key, PersonCodec.get(buffer));
+				}
+				else if (type == REMOVE) {
+					if (buffer.remaining() < 4) break;
+					manager.removeElement(buffer.getInt());
+				}
+				else if (type == CLEAR) {
+					manager.clearCollection();
+				}
+				else break;
+				valid = buffer.position();
+				count++;
+			}
+		}
+		catch (RuntimeException ex) {
+			// Хвост журнала поврежден: применяем только записи до него.
+		}
+
+		if (valid < size) {
+			channel.truncate(valid);
+			channel.force(true);
+		}
+		channel.position(valid);
+		appended = written = synced = 0;
+		return count;
+	}
+
+	/**
+     * Записывает на диск все накопленные записи и синхронизирует файл.
+     * Если несколько потоков вызывают метод одновременно, одна синхронизация
+     * покрывает записи всех потоков, накопленные к ее началу.
+     *
+     * @throws IOException при ошибке записи журнала
+     */
+	public void commit() throws IOException {
+		long target;
+		synchronized (this) {
+			target = appended;
+			writePending();
+		}
+		synchronized (syncLock) {
+			if (synced >= target) return;
+			long upTo;
+			synchronized (this) {
+				upTo = written;
+			}
+			channel.force(false);
+			synced = upTo;
+		}
+	}
+
+	/**
+     * Очищает журнал после того, как коллекция полностью сохранена в снимок.
+     *
+     * @throws IOException при ошибке записи журнала
+     */
+	public void reset() throws IOException {
+		synchronized (syncLock) {
+			synchronized (this) {
+				pending.clear();
+				failure = null;
+				channel.truncate(0);
+				channel.position(0);
+				channel.force(true);
+				appended = written = synced = 0;
+			}
+		}
+	}
+
+	/**
+     * Возвращает позицию конца журнала с учетом еще не записанных записей.
+     * Вместе с {@link #discardBefore(long)} позволяет удалить из журнала
+     * записи, вошедшие в снимок, сохраняя записи, сделанные после него.
+     *
+     * @return позиция конца журнала в байтах
+     * @throws IOException при ошибке доступа к файлу
+     */
+	public synchronized long mark() throws IOException {
+		return channel.position() + pending.position();
+	}
+
+	/**
+     * Удаляет из журнала записи до заданной позиции.
+     * Оставшиеся записи переносятся в новый файл, который атомарно заменяет журнал.
+     *
+     * @param mark позиция, полученная через {@link #mark()}
+     * @throws IOException при ошибке записи журнала
+     */
+	public void discardBefore(long mark) throws IOException {
+		if (mark <= 0) return;
+		synchronized (syncLock) {
+			synchronized (this) {
+				writePending();
+				long size = channel.size();
+				if (mark >= size) {
+					reset();
+					return;
+				}
+
+				Path path = Path.of(fileName);
+				Path temp = Path.of(fileName + ".tmp");
+				try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+						StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+					long position = mark;
+					while (position < size) {
+						position += channel.transferTo(position, size - position, out);
+					}
+					out.force(true);
+				}
+				channel.close();
+				Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+				channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+				channel.position(channel.size());
+				appended = written = synced = 0;
+			}
+		}
+	}
+
+	/**
+     * Закрывает файл журнала. Незаписанные записи предварительно сохраняются.
+     *
+     * @throws IOException при ошибке записи журнала
+     */
+	public void close() throws IOException {
+		commit();
+		channel.close();
+	}
+
+	@Override
+	public synchronized void onPut(int key, Person oldElement, Person newElement) {
+		reserve(1 + PersonCodec.sizeOf(newElement));
+		pending.put(PUT);
+		PersonCodec.put(pending, key, newElement);
+	}
+
+	@Override
+	public synchronized void onRemove(int key, Person oldElement) {
+		reserve(1 + 4);
+		pending.put(REMOVE);
+		pending.putInt(key);
+	}
+
+	@Override
+	public synchronized void onClear() {
+		reserve(1);
+		pending.put(CLEAR);
+	}
+
+	@Override
+	public void onLoad(Map<Integer, Person> map) {}
+
+	/**
+     * Гарантирует наличие места под запись заданного размера в буфере.
+     * Заполненный буфер сбрасывается в файл без синхронизации с диском.
+     *
+     * @param size размер записи в байтах
+     */
+	private void reserve(int size) {
+		if (pending.remaining() < size) {
+			try {
+				writePending();
+			}
+			catch (IOException ex) {
+				failure = ex;
+			}
+			if (pending.remaining() < size) {
+				ByteBuffer larger = ByteBuffer.allocate(pending.position() + Math.max(size, BUFFER_SIZE));
+				pending.flip();
+				larger.put(pending);
+				pending = larger;
+			}
+		}
+		appended += size;
+	}
+
+	/**
+     * Переносит накопленные записи из буфера в файл.
+     *
+     * @throws IOException при ошибке записи, в том числе отложенной
+     */
+	private void writePending() throws IOException {
+		if (failure != null) {
+			IOException ex = failure;
+			failure = null;
+			throw ex;
+		}
+		pending.flip();
+		try {
+			while (pending.hasRemaining()) {
+				written += channel.write(pending);
+			}
+		}
+		finally {
+			pending.compact();
+		}
+	}
+}
@@ -0,0 +1,303 @@
+package fileManager;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+
+import collection.Person;
+import collectionManager.IntPersonMap;
+import collectionManager.PersonMap;
+
+/**
+ * Коллекция, читаемая из двоичного снимка по требованию.
+ * Файл снимка отображается в память, при открытии строится только индекс
+ * "ключ - позиция записи"; объект Person разбирается из файла при каждом обращении.
+ * Изменения коллекции хранятся в памяти поверх снимка: новые и измененные
+ * элементы - в {@link IntPersonMap}, скрытые записи снимка - в битовом множестве.
+ * Сам файл снимка не изменяется, но остается отображенным, пока жива коллекция
+ * или ее копии, поэтому в Windows, где отображенный файл нельзя заменить,
+ * такая коллекция не используется (см. параметр lab5.mmap в {@link FileManager}).
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class MappedPersonMap extends PersonMap {
+
+	private static final long DEFAULT_SEGMENT_SIZE = 1L << 30;
+
+	/**
+	 * Максимальный размер одного отображаемого участка файла.
+	 * По умолчанию гигабайт; для проверки разбиения на участки задается
+	 * параметром запуска -Dlab5.mmap.segment=&lt;байты&gt;.
+	 */
+	private static final long SEGMENT_SIZE = segmentSize(Long.getLong("lab5.mmap.segment", DEFAULT_SEGMENT_SIZE));
+
+	private final MappedByteBuffer[] segments;
+	private int[] keys;
+	private long[] refs;
+	private BitSet hidden;
+	private final IntPersonMap changed;
+	private int size;
+	private final int nextKey;
+
+	private MappedPersonMap(MappedByteBuffer[] segments, int[] keys, long[] refs,
+			BitSet hidden, IntPersonMap changed, int size, int nextKey) {
+		this.segments = segments;
+		this.keys = keys;
+		this.refs = refs;
+		this.hidden = hidden;
+		this.changed = changed;
+		this.size = size;
+		this.nextKey = nextKey;
+	}
+
+	/**
+     * Отображает двоичный снимок в память и строит индекс его записей.
+     * Файл больше гигабайта отображается несколькими участками, каждый участок
+     * начинается на границе записи. Контрольная сумма снимка проверяется до построения индекса.
+     *
+     * @param filename путь к файлу снимка
+     * @return коллекция, читающая элементы из снимка
+     * @throws IOException при ошибке ввода-вывода или неверном формате файла
+     */
+	public static MappedPersonMap open(String filename) throws IOException {
+		try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+			BinaryReader.verifyChecksum(channel);
+			long fileSize = channel.size();
+			if (fileSize < BinaryWriter.HEADER_SIZE_V1) throw new EOFException("Снимок коллекции обрывается.");
+
+			ArrayList<MappedByteBuffer> segments = new ArrayList<>();
+			long start = 0;
+			MappedByteBuffer segment = map(channel, start, fileSize);
+			segments.add(segment);
+			if (segment.getInt() != BinaryWriter.MAGIC) throw new IOException("Файл не является двоичным снимком коллекции.");
+			short version = segment.getShort();
+			if (version != 1 && version != BinaryWriter.VERSION) throw new IOException("Неподдерживаемая версия снимка: " + version);
+			int count = segment.getInt();
+			if (count < 0) throw new IOException("Неверное количество записей в снимке: " + count);
+			if (version > 1 && segment.remaining() < 4) throw new EOFException("Снимок коллекции обрывается.");
+			int nextKey = version > 1 ? segment.getInt() : 0;
+
+			int capacity = Integer.highestOneBit(Math.max(count, 1) * 2 - 1) << 1;
+			int[] keys = new int[capacity];
+			long[] refs = new long[capacity];
+			Arrays.fill(refs, -1);
+			int size = 0;
+
+			for (int i = 0; i < count; i++) {
+				while (segment.remaining() < 4 || segment.remaining() < PersonCodec.peekSize(segment)) {
+					if (start + segment.limit() >= fileSize) throw new EOFException("Снимок коллекции обрывается.");
+					if (segment.position() == 0) throw new IOException("Запись снимка не помещается в отображаемый участок.");
+					start += segment.position();
+					segment = map(channel, start, fileSize);
+					segments.add(segment);
+				}
+				int length = PersonCodec.peekSize(segment);
+				if (length < 8) throw new IOException("Неверная длина записи в снимке: " + length);
+				long ref = ((long) (segments.size() - 1) << 32) | segment.position();
+				if (insert(keys, refs, PersonCodec.peekKey(segment), ref)) size++;
+				segment.position(segment.position() + length);
+			}
+			return new MappedPersonMap(segments.toArray(new MappedByteBuffer[0]), keys, refs,
+				new BitSet(), new IntPersonMap(), size, nextKey);
+		}
+	}
+
+	@Override
+	public PersonMap copy() {
+		return new MappedPersonMap(segments, keys, refs, (BitSet) hidden.clone(), (IntPersonMap) changed.copy(), size, nextKey);
+	}
+
+	/**
+     * Возвращает следующий ключ для новых элементов, сохраненный в заголовке снимка.
+     *
+     * @return следующий ключ или 0, если снимок записан версией формата 1
+     */
+	public int getNextKey() {
+		return nextKey;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean containsKey(int key) {
+		if (changed.containsKey(key)) return true;
+		int slot = find(key);
+		return slot >= 0 && !hidden.get(slot);
+	}
+
+	@Override
+	public Person get(int key) {
+		Person person = changed.get(key);
+		if (person != null) return person;
+		int slot = find(key);
+		if (slot < 0 || hidden.get(slot)) return null;
+		return decode(refs[slot]);
+	}
+
+	@Override
+	public Person put(int key, Person person) {
+		Person old = get(key);
+		changed.put(key, person);
+		int slot = find(key);
+		if (slot >= 0) hidden.set(slot);
+		if (old == null) size++;
+		return old;
+	}
+
+	@Override
+	public Person remove(int key) {
+		Person old = get(key);
+		if (old == null) return null;
+		changed.remove(key);
+		int slot = find(key);
+		if (slot >= 0) hidden.set(slot);
+		size--;
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		keys = new int[1];
+		refs = new long[] {-1};
+		hidden = new BitSet();
+		changed.clear();
+		size = 0;
+	}
+
+	@Override
+	public Cursor cursor() {
+		return new MappedCursor();
+	}
+
+	/**
+     * Проверяет размер участка: позиция записи внутри участка хранится в int.
+     */
+	private static long segmentSize(long size) {
+		if (size > 0 && size <= Integer.MAX_VALUE) return size;
+		System.out.println("Неверный размер участка lab5.mmap.segment: " + size + ", используется " + DEFAULT_SEGMENT_SIZE + ".");
+		return DEFAULT_SEGMENT_SIZE;
+	}
+
+	/**
+     * Отображает в память участок файла, начиная с заданной позиции.
+     */
+	private static MappedByteBuffer map(FileChannel channel, long start, long fileSize) throws IOException {
+		return channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(SEGMENT_SIZE, fileSize - start));
+	}
+
+	/**
+     * Добавляет ключ в индекс с открытой адресацией.
+     *
+     * @return true если ключа в индексе еще не было
+     */
+	private static boolean insert(int[] keys, long[] refs, int key, long ref) {
+		int mask = keys.length - 1;
+		for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+			if (refs[slot] < 0) {
+				keys[slot] = key;
+				refs[slot] = ref;
+				return true;
+			}
+			if (keys[slot] == key) {
+				refs[slot] = ref;
+				return false;
+			}
+		}
+	}
+
+	/**
+     * Ищет ключ в индексе снимка.
+     *
+     * @return номер ячейки индекса или -1, если ключа в снимке нет
+     */
+	private int find(int key) {
+		int mask = keys.length - 1;
+		for (int slot = hash(key) & mask; refs[slot] >= 0; slot = (slot + 1) & mask) {
+			if (keys[slot] == key) return slot;
+		}
+		return -1;
+	}
+
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+     * Разбирает запись снимка по ее позиции.
+     */
+	private Person decode(long ref) {
+		ByteBuffer buffer = segments[(int) (ref >>> 32)].duplicate();
+		buffer.position((int) ref);
+		return PersonCodec.get(buffer);
+	}
+
+	/**
+     * Обходит сначала видимые записи снимка, затем элементы, измененные в памяти.
+     * Запись снимка разбирается только при запросе ее значения.
+     */
+	private class MappedCursor implements Cursor {
+		private final int[] slotKeys = keys;
+		private final long[] slotRefs = refs;
+		private int slot = -1;
+		private int nextSlot = -2;
+		private Cursor changedCursor;
+		private boolean fromChanged = false;
+		private boolean canRemove = false;
+		private Person value;
+
+		@Override
+		public boolean hasNext() {
+			if (changedCursor == null) {
+				if (nextSlot == -2) {
+					nextSlot = slot + 1;
+					while (nextSlot < slotRefs.length && (slotRefs[nextSlot] < 0 || hidden.get(nextSlot))) nextSlot++;
+				}
+				if (nextSlot < slotRefs.length) return true;
+				changedCursor = changed.cursor();
+			}
+			return changedCursor.hasNext();
+		}
+
+		@Override
+		public int nextKey() {
+			if (!hasNext()) throw new NoSuchElementException();
+			canRemove = true;
+			value = null;
+			fromChanged = changedCursor != null;
+			if (fromChanged) return changedCursor.nextKey();
+			slot = nextSlot;
+			nextSlot = -2;
+			return slotKeys[slot];
+		}
+
+		@Override
+		public Person value() {
+			if (fromChanged) return changedCursor.value();
+			if (value == null) value = decode(slotRefs[slot]);
+			return value;
+		}
+
+		@Override
+		public void remove() {
+			if (!canRemove) throw new IllegalStateException();
+			canRemove = false;
+			if (fromChanged) changedCursor.remove();
+			else hidden.set(slot);
+			size--;
+		}
+	}
+}
@@ -0,0 +1,177 @@
+package fileManager;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import collection.ColorEye;
+import collection.ColorHair;
+import collection.Coordinates;
+import collection.Location;
+import collection.Person;
+
+/**
+ * Двоичное представление одной записи коллекции.
+ * Запись имеет вид [длина][ключ][поля человека]: длина позволяет пропускать запись
+ * без разбора, координаты и локация хранятся числами фиксированной ширины,
+ * даты - в виде значений от эпохи, цвета - порядковыми номерами,
+ * строки - в UTF-8 с префиксом длины.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class PersonCodec {
+
+	private static final int HAS_BIRTHDAY = 1;
+	private static final int HAS_EYE_COLOR = 2;
+	private static final int HAS_HAIR_COLOR = 4;
+	private static final int HAS_LOCATION = 8;
+
+	/**
+	 * Размер записи без строк: длина, ключ, координаты, дата создания, рост, флаги.
+	 */
+	private static final int FIXED_SIZE = 4 + 4 + 4 + 8 + 8 + 4 + 4 + 1;
+
+	private PersonCodec() {}
+
+	/**
+     * Вычисляет полный размер записи в байтах, включая поле длины.
+     *
+     * @param person объект для записи
+     * @return размер записи в байтах
+     */
+	public static int sizeOf(Person person) {
+		int size = FIXED_SIZE + 4 + utfLength(person.getName());
+		if (person.getBirthday() != null) size += 8;
+		if (person.getEyeColor() != null) size += 1;
+		if (person.getHairColor() != null) size += 1;
+		if (person.getLocation() != null) size += 8 + 4 + 4 + 4 + utfLength(person.getLocation().getName());
+		return size;
+	}
+
+	/**
+     * Записывает запись в буфер. В буфере должно быть не меньше {@link #sizeOf(Person)} свободных байт.
+     *
+     * @param buffer буфер для записи
+     * @param key ключ объекта в коллекции
+     * @param person объект для записи
+     */
+	public static void put(ByteBuffer buffer, int key, Person person) {
+		buffer.putInt(sizeOf(person));
+		buffer.putInt(key);
+		putString(buffer, person.getName());
+		buffer.putFloat(person.getCoordinates().getX());
+		buffer.putLong(person.getCoordinates().getY());
+		LocalDateTime creationDate = person.getCreationDate();
+		buffer.putLong(creationDate.toEpochSecond(ZoneOffset.UTC));
+		buffer.putInt(creationDate.getNano());
+		buffer.putInt(person.getHeight());
+
+		int flags = 0;
+		if (person.getBirthday() != null) flags |= HAS_BIRTHDAY;
+		if (person.getEyeColor() != null) flags |= HAS_EYE_COLOR;
+		if (person.getHairColor() != null) flags |= HAS_HAIR_COLOR;
+		if (person.getLocation() != null) flags |= HAS_LOCATION;
+		buffer.put((byte) flags);
+
+		if (person.getBirthday() != null) buffer.putLong(person.getBirthday().toEpochDay());
+		if (person.getEyeColor() != null) buffer.put((byte) person.getEyeColor().ordinal());
+		if (person.getHairColor() != null) buffer.put((byte) person.getHairColor().ordinal());
+		if (person.getLocation() != null) {
+			Location location = person.getLocation();
+			buffer.putLong(location.getX());
+			buffer.putFloat(location.getY());
+			buffer.putInt(location.getZ());
+			putString(buffer, location.getName());
+		}
+	}
+
+	/**
+     * Читает длину записи, не сдвигая позицию буфера.
+     *
+     * @param buffer буфер, позиция которого стоит на начале записи
+     * @return полный размер записи в байтах
+     */
+	public static int peekSize(ByteBuffer buffer) {
+		return buffer.getInt(buffer.position());
+	}
+
+	/**
+     * Читает ключ записи, не сдвигая позицию буфера.
+     *
+     * @param buffer буфер, позиция которого стоит на начале записи
+     * @return ключ объекта
+     */
+	public static int peekKey(ByteBuffer buffer) {
+		return buffer.getInt(buffer.position() + 4);
+	}
+
+	/**
+     * Читает запись целиком и сдвигает позицию буфера на ее конец.
+     * Ключ записи можно получить заранее через {@link #peekKey(ByteBuffer)}.
+     *
+     * @param buffer буфер, позиция которого стоит на начале записи
+     * @return прочитанный объект Person
+     */
+	public static Person get(ByteBuffer buffer) {
+		buffer.getInt();
+		buffer.getInt();
+		String name = getString(buffer);
+		Coordinates coordinates = new Coordinates(buffer.getFloat(), buffer.getLong());
+		LocalDateTime creationDate = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+		int height = buffer.getInt();
+		Person person = new Person(name, coordinates, creationDate, height, null, null, null, null);
+
+		int flags = buffer.get();
+		if ((flags & HAS_BIRTHDAY) != 0) person.setBirthday(LocalDate.ofEpochDay(buffer.getLong()));
+		if ((flags & HAS_EYE_COLOR) != 0) person.setEyeColor(ColorEye.values()[buffer.get()]);
+		if ((flags & HAS_HAIR_COLOR) != 0) person.setHairColor(ColorHair.values()[buffer.get()]);
+		if ((flags & HAS_LOCATION) != 0) {
+			long x = buffer.getLong();
+			float y = buffer.getFloat();
+			int z = buffer.getInt();
+			person.setLocation(new Location(x, y, z, getString(buffer)));
+		}
+		return person;
+	}
+
+	private static int utfLength(String s) {
+		int length = 0;
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c < 0x80) length += 1;
+			else if (c < 0x800) length += 2;
+			else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+				length += 4;
+				i++;
+			}
+			else if (Character.isSurrogate(c)) length += 1;
+			else length += 3;
+		}
+		return length;
+	}
+
+	private static void putString(ByteBuffer buffer, String s) {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		buffer.putInt(bytes.length);
+		buffer.put(bytes);
+	}
+
+	private static String getString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		String s;
+		if (buffer.hasArray()) {
+			s = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, StandardCharsets.UTF_8);
+		}
+		else {
+			byte[] bytes = new byte[length];
+			buffer.get(buffer.position(), bytes);
+			s = new String(bytes, StandardCharsets.UTF_8);
+		}
+		buffer.position(buffer.position() + length);
+		return s;
+	}
+}
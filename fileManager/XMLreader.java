@@ -1,20 +1,31 @@
 package fileManager;
 
-import java.io.BufferedInputStream;
-import java.io.FileInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import collection.ColorEye;
 import collection.ColorHair;
@@ -22,10 +33,17 @@ import collection.Coordinates;
 import collection.Location;
 import collection.Person;
 import collectionManager.CollectionManager;
+import collectionManager.IntPersonMap;
+import collectionManager.PersonMap;
+import collectionManager.StorageEngine;
+import exceptions.ChecksumException;
 
 /**
  * Класс для чтения данных из XML файла и преобразования их в коллекцию объектов Person.
- * Реализует парсинг XML документа с использованием DOM парсера.
+ * Реализует потоковый разбор XML документа с использованием StAX парсера:
+ * элементы person читаются по одному, дерево документа в памяти не строится.
+ * Большие файлы разбираются по частям в нескольких потоках.
+ * Из атрибута nextKey корневого элемента читается следующий ключ для новых элементов.
  *
  * @author Ekaterina
  * @version 1.0
@@ -33,92 +51,424 @@ import collectionManager.CollectionManager;
  */
 public class XMLreader {
 
+	/**
+	 * Размер файла, начиная с которого он разбирается по частям в нескольких потоках.
+	 */
+	private static final long PARALLEL_THRESHOLD = 4L << 20;
+
+	/**
+	 * Минимальный размер одной части файла при параллельном разборе.
+	 */
+	private static final long MIN_CHUNK_SIZE = 1L << 20;
+
+	/**
+	 * Максимальный размер одной части файла: часть целиком читается в память.
+	 */
+	private static final long MAX_CHUNK_SIZE = 32L << 20;
+
+	private static final byte[] PERSON_TAG = "<person".getBytes(StandardCharsets.US_ASCII);
+	private static final byte[] CLOSE_TAG = "</collection>".getBytes(StandardCharsets.US_ASCII);
+
+	/**
+	 * Следующий ключ из атрибута корневого элемента или 0, если атрибута нет.
+	 */
+	private int nextKey;
+
+	/**
+     * Проверяет контрольную сумму, записанную {@link XMLwriter} в последней строке файла.
+     * Файл без контрольной суммы (например, созданный вручную) принимается без проверки;
+     * чтобы загрузить вручную исправленный файл, строку с контрольной суммой нужно удалить.
+     *
+     * @param filename путь к XML файлу
+     * @throws ChecksumException если контрольная сумма не совпадает
+     * @throws IOException при ошибке чтения
+     */
+	public static void verifyChecksum(String filename) throws IOException {
+		try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+			long size = channel.size();
+			int tailSize = (int) Math.min(size, 64);
+			ByteBuffer tail = ByteBuffer.allocate(tailSize);
+			while (tail.hasRemaining() && channel.read(tail, size - tailSize + tail.position()) >= 0);
+			String text = new String(tail.array(), 0, tail.position(), StandardCharsets.US_ASCII);
+
+			int start = text.lastIndexOf(XMLwriter.CHECKSUM_PREFIX);
+			if (start < 0) return;
+			int end = text.indexOf(" -->", start);
+			long expected;
+			try {
+				expected = Long.parseLong(text.substring(start + XMLwriter.CHECKSUM_PREFIX.length(), end), 16);
+			}
+			catch (NumberFormatException | IndexOutOfBoundsException ex) {
+				throw new ChecksumException("Контрольная сумма файла записана неверно.");
+			}
+			if (AtomicFile.checksum(channel, size - tailSize + start) != expected) {
+				throw new ChecksumException("Контрольная сумма файла не совпадает, файл поврежден.");
+			}
+		}
+	}
+
 	/**
      * Читает XML файл и создает карту объектов Person на основе его содержимого.
-     * 
+     * Большой файл делится на части по границам элементов person, которые
+     * разбираются параллельно в общем ForkJoinPool; результаты объединяются
+     * в порядке частей, поэтому повторяющийся ключ получает последнее значение из файла,
+     * как и при последовательном чтении. Части разбираются в кодировке из объявления XML
+     * (UTF-8, если она не объявлена); файл в кодировке, где теги записываются не так,
+     * как в ASCII (например, UTF-16), читается последовательно. Если какую-то часть
+     * разобрать не удалось, файл читается последовательно, и ошибка сообщается так же,
+     * как без деления на части.
+     * Перед разбором проверяется контрольная сумма файла. Сжатый файл распаковывается
+     * потоком и разбирается в одном потоке, его целостность проверяет контрольная сумма gzip.
+     *
      * @param filename путь к XML файлу для чтения
-     * @throws ParserConfigurationException если возникла ошибка конфигурации парсера
      * @throws FileNotFoundException если файл не найден
+     * @throws ChecksumException если контрольная сумма не совпадает
      * @throws IOException при ошибке ввода-вывода
-     * @throws SAXException при ошибке разбора XML
+     * @throws XMLStreamException при ошибке разбора XML
      */
-	public void readMapFromXML(String filename) throws ParserConfigurationException, FileNotFoundException, IOException, SAXException {
-		
-		HashMap<Integer, Person> personMap = new HashMap<>();
-		
-		try (BufferedInputStream bis = new BufferedInputStream(new FileInputStream(filename))) {
-			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = builder.parse(bis);
-            
-            Element root = document.getDocumentElement();
-            NodeList people = root.getElementsByTagName("person");
-            
-            for (int i = 0; i < people.getLength(); i++) {
-            	Node personNode = people.item(i);
-            	
-            	if (personNode.getNodeType() == Node.ELEMENT_NODE) {
-            		Element personElement = (Element) personNode;
-            		Integer key = Integer.parseInt(personElement.getElementsByTagName("id").item(0).getTextContent());
-            		Person person = parsePersonElement(personElement);
-            		personMap.put(key, person);
-            	}
-            	
-            }
-		}
-		
+	public void readMapFromXML(String filename) throws FileNotFoundException, IOException, XMLStreamException {
+
+		if (!new File(filename).exists()) throw new FileNotFoundException(filename);
+		boolean compressed = Compression.isCompressed(filename);
+		if (!compressed) verifyChecksum(filename);
+
+		nextKey = 0;
+		PersonMap personMap = null;
+		if (!compressed && ForkJoinPool.getCommonPoolParallelism() > 1 && new File(filename).length() >= PARALLEL_THRESHOLD) {
+			personMap = readParallel(filename);
+		}
+		if (personMap == null) personMap = readSequential(filename);
+
 		CollectionManager manager = CollectionManager.getManager();
-		manager.setCollection(personMap);
-		
+		manager.setCollection(personMap, nextKey);
+
 	}
-	
+
 	/**
-     * Преобразует XML элемент в объект Person.
-     * Обрабатывает все необходимые поля включая координаты и локацию.
-     * 
-     * @param personElement XML элемент содержащий данные о человеке
-     * @return объект Person со всеми заполненными полями
+     * Читает XML файл целиком в одном потоке, распаковывая его, если он сжат.
+     *
+     * @param filename путь к XML файлу для чтения
+     * @return прочитанная карта объектов Person
+     * @throws IOException при ошибке ввода-вывода
+     * @throws XMLStreamException при ошибке разбора XML
      */
-	private Person parsePersonElement(Element personElement) {
-        String name = personElement.getElementsByTagName("name").item(0).getTextContent();
-        
-        Element coordinatesElement = (Element) personElement.getElementsByTagName("coordinates").item(0);
-        Coordinates coordinates = new Coordinates(
-            Float.parseFloat(coordinatesElement.getElementsByTagName("x").item(0).getTextContent().replace(',', '.')),
-            (long)Long.parseLong(coordinatesElement.getElementsByTagName("y").item(0).getTextContent())
-        );
-        
-        int height = Integer.parseInt(personElement.getElementsByTagName("height").item(0).getTextContent());
-        
-        Person person = new Person(name, coordinates, height);
-        
-        NodeList birthdayNodes = personElement.getElementsByTagName("birthday");
-        if (birthdayNodes.getLength() > 0) {
-            person.setBirthday(LocalDate.parse(birthdayNodes.item(0).getTextContent()));
-        }
-        
-        NodeList eyeColorNodes = personElement.getElementsByTagName("eyeColor");
-        if (eyeColorNodes.getLength() > 0) {
-            person.setEyeColor(ColorEye.valueOf(eyeColorNodes.item(0).getTextContent()));
-        }
-        
-        NodeList hairColorNodes = personElement.getElementsByTagName("hairColor");
-        if (hairColorNodes.getLength() > 0) {
-            person.setHairColor(ColorHair.valueOf(hairColorNodes.item(0).getTextContent()));
-        }
-        
-        NodeList locationNodes = personElement.getElementsByTagName("location");
-        if (locationNodes.getLength() > 0) {
-            Element locationElement = (Element) locationNodes.item(0);
-            person.setLocation(new Location(
-                Long.parseLong(locationElement.getElementsByTagName("x").item(0).getTextContent()),
-                Float.parseFloat(locationElement.getElementsByTagName("y").item(0).getTextContent().replace(',', '.')),
-                Integer.parseInt(locationElement.getElementsByTagName("z").item(0).getTextContent()),
-                personElement.getElementsByTagName("name").item(1).getTextContent()
-            ));
-        }
-        
-		return person;
+	private PersonMap readSequential(String filename) throws IOException, XMLStreamException {
+		PersonMap personMap = StorageEngine.current().create(0);
+
+		try (InputStream in = Compression.open(filename)) {
+			readPersons(in, null, personMap);
+		}
+		return personMap;
+	}
+
+	/**
+     * Читает XML файл по частям в нескольких потоках.
+     *
+     * @param filename путь к XML файлу для чтения
+     * @return прочитанная карта объектов Person или null, если файл надо прочитать последовательно
+     * @throws IOException при ошибке ввода-вывода
+     */
+	private PersonMap readParallel(String filename) throws IOException {
+		List<ForkJoinTask<IntPersonMap>> tasks = new ArrayList<>();
+
+		try (FileChannel channel = FileChannel.open(Path.of(filename), StandardOpenOption.READ)) {
+			long size = channel.size();
+			long start = find(channel, PERSON_TAG, 0, size);
+			long end = findLast(channel, CLOSE_TAG, size);
+			if (start < 0 || end < start) return null;
+			Charset charset = Charset.forName(readHeader(channel, start));
+			if (!Arrays.equals(PERSON_TAG, "<person".getBytes(charset)) || !Arrays.equals(CLOSE_TAG, "</collection>".getBytes(charset))) {
+				return null;
+			}
+
+			int parts = ForkJoinPool.getCommonPoolParallelism() * 4;
+			long chunkSize = Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, (end - start) / parts + 1));
+			while (start < end) {
+				long next = start + chunkSize >= end ? end : find(channel, PERSON_TAG, start + chunkSize, end);
+				if (next < 0) next = end;
+				tasks.add(ForkJoinPool.commonPool().submit(chunkTask(channel, start, next, charset.name())));
+				start = next;
+			}
+
+			PersonMap personMap = null;
+			for (ForkJoinTask<IntPersonMap> task : tasks) {
+				IntPersonMap part = task.join();
+				if (personMap == null) {
+					personMap = StorageEngine.current().create(part.size() * tasks.size());
+				}
+				personMap.putAll(part);
+			}
+			return personMap;
+		}
+		catch (RuntimeException | XMLStreamException ex) {
+			for (ForkJoinTask<IntPersonMap> task : tasks) {
+				task.cancel(false);
+			}
+			return null;
+		}
+	}
+
+	/**
+     * Создает задачу разбора одной части файла.
+     * Часть содержит только элементы person, поэтому для разбора она оборачивается
+     * во временный корневой элемент.
+     *
+     * @param channel канал файла
+     * @param start позиция начала части
+     * @param end позиция конца части
+     * @param encoding кодировка файла из объявления XML
+     * @return задача, возвращающая карту объектов Person из этой части
+     */
+	private Callable<IntPersonMap> chunkTask(FileChannel channel, long start, long end, String encoding) {
+		return () -> {
+			ByteBuffer chunk = ByteBuffer.allocate((int) (end - start));
+			while (chunk.hasRemaining()) {
+				if (channel.read(chunk, start + chunk.position()) < 0) throw new EOFException();
+			}
+			InputStream in = new SequenceInputStream(Collections.enumeration(List.of(
+				new ByteArrayInputStream("<collection>".getBytes(StandardCharsets.US_ASCII)),
+				new ByteArrayInputStream(chunk.array()),
+				new ByteArrayInputStream(CLOSE_TAG)
+			)));
+			IntPersonMap personMap = new IntPersonMap();
+			readPersons(in, encoding, personMap);
+			return personMap;
+		};
+	}
+
+	/**
+     * Разбирает начало файла до первого элемента person, чтобы прочитать атрибуты
+     * корневого элемента и кодировку из объявления XML.
+     *
+     * @param channel канал файла
+     * @param end позиция первого элемента person
+     * @return кодировка из объявления XML или UTF-8, если она не объявлена
+     * @throws IOException при ошибке чтения
+     * @throws XMLStreamException при ошибке разбора XML
+     */
+	private String readHeader(FileChannel channel, long end) throws IOException, XMLStreamException {
+		ByteBuffer header = ByteBuffer.allocate((int) end);
+		while (header.hasRemaining()) {
+			if (channel.read(header, header.position()) < 0) throw new EOFException();
+		}
+		InputStream in = new SequenceInputStream(
+			new ByteArrayInputStream(header.array()),
+			new ByteArrayInputStream(CLOSE_TAG)
+		);
+		XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(in);
+		try {
+			String encoding = reader.getCharacterEncodingScheme();
+			while (reader.hasNext()) {
+				if (reader.next() == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("collection")) {
+					readNextKey(reader.getAttributeValue(null, "nextKey"));
+				}
+			}
+			return encoding == null ? "UTF-8" : encoding;
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	/**
+     * Разбирает поток XML и добавляет все элементы person в карту.
+     *
+     * @param in поток с XML документом
+     * @param encoding кодировка потока или null, чтобы взять ее из объявления XML
+     * @param personMap карта, в которую добавляются прочитанные объекты
+     * @throws XMLStreamException при ошибке разбора XML
+     */
+	private void readPersons(InputStream in, String encoding, PersonMap personMap) throws XMLStreamException {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		XMLStreamReader reader = encoding == null ? factory.createXMLStreamReader(in) : factory.createXMLStreamReader(in, encoding);
+		try {
+			while (reader.hasNext()) {
+				if (reader.next() != XMLStreamConstants.START_ELEMENT) continue;
+				if (reader.getLocalName().equals("person")) {
+					readPersonElement(reader, personMap);
+				}
+				else if (reader.getLocalName().equals("collection")) {
+					readNextKey(reader.getAttributeValue(null, "nextKey"));
+				}
+			}
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+	/**
+     * Ищет первый открывающий тег в файле, начиная с заданной позиции.
+     * Для тега person проверяется, что за именем следует конец тега или пробел.
+     *
+     * @param channel канал файла
+     * @param tag искомый тег
+     * @param from позиция начала поиска
+     * @param limit позиция, до которой идет поиск
+     * @return позиция тега или -1, если тег не найден
+     * @throws IOException при ошибке чтения
+     */
+	private long find(FileChannel channel, byte[] tag, long from, long limit) throws IOException {
+		ByteBuffer window = ByteBuffer.allocate(1 << 16);
+		for (long position = from; position < limit; position += window.capacity() - tag.length) {
+			window.clear();
+			if (limit - position < window.capacity()) window.limit((int) (limit - position));
+			while (window.hasRemaining() && channel.read(window, position + window.position()) >= 0);
+			window.flip();
+			for (int i = 0; i + tag.length < window.limit(); i++) {
+				if (matches(window, i, tag)) {
+					byte after = window.get(i + tag.length);
+					if (after == '>' || after == ' ' || after == '\t' || after == '\r' || after == '\n') return position + i;
+				}
+			}
+			if (window.limit() < window.capacity()) break;
+		}
+		return -1;
+	}
+
+	/**
+     * Ищет последнее вхождение тега в файле.
+     *
+     * @param channel канал файла
+     * @param tag искомый тег
+     * @param limit размер файла
+     * @return позиция тега или -1, если тег не найден
+     * @throws IOException при ошибке чтения
+     */
+	private long findLast(FileChannel channel, byte[] tag, long limit) throws IOException {
+		ByteBuffer window = ByteBuffer.allocate(1 << 16);
+		for (long end = limit; end > 0; end -= window.capacity() - tag.length) {
+			long position = Math.max(0, end - window.capacity());
+			window.clear();
+			window.limit((int) (end - position));
+			while (window.hasRemaining() && channel.read(window, position + window.position()) >= 0);
+			window.flip();
+			for (int i = window.limit() - tag.length; i >= 0; i--) {
+				if (matches(window, i, tag)) return position + i;
+			}
+			if (position == 0) break;
+		}
+		return -1;
+	}
+
+	private boolean matches(ByteBuffer window, int offset, byte[] tag) {
+		for (int j = 0; j < tag.length; j++) {
+			if (window.get(offset + j) != tag[j]) return false;
+		}
+		return true;
+	}
+
+	/**
+     * Запоминает следующий ключ из атрибута корневого элемента.
+     * Отсутствующий или неверный атрибут пропускается: ключи новых элементов
+     * тогда продолжаются за наибольшим ключом коллекции.
+     *
+     * @param value значение атрибута nextKey или null
+     */
+	private void readNextKey(String value) {
+		if (value == null) return;
+		try {
+			nextKey = Integer.parseInt(value.trim());
+		}
+		catch (NumberFormatException ex) {
+			nextKey = 0;
+		}
+	}
+
+	/**
+     * Читает один элемент person из потока и добавляет его в карту.
+     * Поток должен стоять на открывающем теге person; после выполнения
+     * он стоит на соответствующем закрывающем теге.
+     *
+     * @param reader StAX поток, установленный на начало элемента person
+     * @param personMap карта, в которую добавляется прочитанный объект
+     * @throws XMLStreamException при ошибке разбора XML или отсутствии обязательных полей
+     */
+	private void readPersonElement(XMLStreamReader reader, PersonMap personMap) throws XMLStreamException {
+		String section = "";
+		String id = null;
+		String name = null;
+		String coordX = null;
+		String coordY = null;
+		String height = null;
+		String birthday = null;
+		String eyeColor = null;
+		String hairColor = null;
+		boolean hasLocation = false;
+		String locX = null;
+		String locY = null;
+		String locZ = null;
+		String locName = null;
+
+		while (reader.hasNext()) {
+			int event = reader.next();
+			if (event == XMLStreamConstants.END_ELEMENT) {
+				if (reader.getLocalName().equals("person")) break;
+				section = "";
+				continue;
+			}
+			if (event != XMLStreamConstants.START_ELEMENT) continue;
+
+			String tag = reader.getLocalName();
+			if (tag.equals("coordinates") || tag.equals("location")) {
+				section = tag;
+				if (tag.equals("location")) hasLocation = true;
+				continue;
+			}
+
+			String text = reader.getElementText();
+			if (section.equals("coordinates")) {
+				if (tag.equals("x") && coordX == null) coordX = text;
+				else if (tag.equals("y") && coordY == null) coordY = text;
+			}
+			else if (section.equals("location")) {
+				if (tag.equals("x") && locX == null) locX = text;
+				else if (tag.equals("y") && locY == null) locY = text;
+				else if (tag.equals("z") && locZ == null) locZ = text;
+				else if (tag.equals("name") && locName == null) locName = text;
+			}
+			else {
+				if (tag.equals("id") && id == null) id = text;
+				else if (tag.equals("name") && name == null) name = text;
+				else if (tag.equals("height") && height == null) height = text;
+				else if (tag.equals("birthday") && birthday == null) birthday = text;
+				else if (tag.equals("eyeColor") && eyeColor == null) eyeColor = text;
+				else if (tag.equals("hairColor") && hairColor == null) hairColor = text;
+			}
+		}
+
+		if (id == null || name == null || coordX == null || coordY == null || height == null) {
+			throw new XMLStreamException("Элемент person не содержит обязательных полей.");
+		}
+
+		Coordinates coordinates = new Coordinates(
+			Float.parseFloat(coordX.replace(',', '.')),
+			Long.parseLong(coordY)
+		);
+		Person person = new Person(name, coordinates, Integer.parseInt(height));
+
+		if (birthday != null) {
+			person.setBirthday(LocalDate.parse(birthday));
+		}
+		if (eyeColor != null) {
+			person.setEyeColor(ColorEye.valueOf(eyeColor));
+		}
+		if (hairColor != null) {
+			person.setHairColor(ColorHair.valueOf(hairColor));
+		}
+		if (hasLocation) {
+			if (locX == null || locY == null || locZ == null || locName == null) {
+				throw new XMLStreamException("Элемент location заполнен не полностью.");
+			}
+			person.setLocation(new Location(
+				Long.parseLong(locX),
+				Float.parseFloat(locY.replace(',', '.')),
+				Integer.parseInt(locZ),
+				locName
+			));
+		}
+
+		personMap.put(Integer.parseInt(id), person);
 	}
 
 }
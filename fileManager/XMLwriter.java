@@ -1,68 +1,274 @@
-package fileManager;
-
-import java.io.FileNotFoundException;
-import java.io.PrintWriter;
-import java.util.HashMap;
-
-import collection.Person;
-
-/**
- * Класс для записи коллекции объектов Person в XML файл.
- * Реализует форматированную запись всех полей объекта Person в XML структуру.
- *
- * @author Ekaterina
- * @version 1.0
- * @since 2025-04-10
- */
-public class XMLwriter {
-	
-	/**
-     * Записывает коллекцию объектов Person в XML файл.
-     * Создает форматированный XML документ со всеми полями объектов Person.
-     * 
-     * @param personMap карта объектов Person для записи
-     * @param filename имя файла для записи
-     * @throws FileNotFoundException если файл не может быть создан
-     */
-	public void writeMapToXML(HashMap<Integer, Person> personMap, String filename) throws FileNotFoundException {
-		
-		try (PrintWriter writer = new PrintWriter(filename)) {
-			 writer.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
-			 writer.println("<collection>");
-	         
-			 for (HashMap.Entry<Integer, Person> entry : personMap.entrySet()) {
-				 Person person = entry.getValue();
-				 writer.printf("    <person>%n");
-	             writer.printf("        <id>%d</id>%n", entry.getKey());
-	             writer.printf("        <name>%s</name>%n", person.getName());
-	             writer.printf("        <coordinates>%n");
-	             writer.printf("            <x>%f</x>%n", person.getCoordinates().getX());
-	             writer.printf("            <y>%d</y>%n", person.getCoordinates().getY());
-	             writer.printf("        </coordinates>%n");
-	             writer.printf("        <creationDate>%s</creationDate>%n", person.getCreationDate());
-	             writer.printf("        <height>%d</height>%n", person.getHeight());
-	                
-	             if (person.getBirthday() != null) {
-	            	 writer.printf("        <birthday>%s</birthday>%n", person.getBirthday());
-	             }
-	             if (person.getEyeColor() != null) {
-	            	 writer.printf("        <eyeColor>%s</eyeColor>%n", person.getEyeColor());
-	             }
-	             if (person.getHairColor() != null) {
-	             	writer.printf("        <hairColor>%s</hairColor>%n", person.getHairColor());
-	             }
-	             if (person.getLocation() != null) {
-	             	writer.printf("        <location>%n");
-	                writer.printf("            <x>%d</x>%n", person.getLocation().getX());
-	                writer.printf("            <y>%f</y>%n", person.getLocation().getY());
-	                writer.printf("            <z>%d</z>%n", person.getLocation().getZ());
-	                writer.printf("            <name>%s</name>%n", person.getLocation().getName());
-	                writer.printf("        </location>%n");
-	             }
-	             writer.println("    </person>");
-			 }
-			 writer.println("</collection>");
-		}
-	}
-	
-}
+package fileManager;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+import collection.Person;
+import collectionManager.CollectionManager;
+import collectionManager.PersonMap;
+
+/**
+ * Класс для записи коллекции объектов Person в XML файл.
+ * Реализует форматированную запись всех полей объекта Person в XML структуру.
+ * Запись идет через переиспользуемые буферы: числа и даты пишутся напрямую,
+ * без форматных строк, текст экранируется и кодируется в UTF-8 вручную.
+ * Корневой элемент хранит в атрибуте nextKey следующий ключ для новых элементов.
+ * Последней строкой файла записывается комментарий с контрольной суммой CRC32
+ * всего предшествующего содержимого, которую проверяет {@link XMLreader}.
+ * Документ может быть сжат в формат gzip; сжатый файл защищен контрольной суммой gzip.
+ *
+ * @author Ekaterina
+ * @version 1.0
+ * @since 2025-04-10
+ */
+public class XMLwriter {
+
+	/**
+	 * Размер буфера байтов, накапливаемых перед записью в файл.
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private static final String NEW_LINE = System.lineSeparator();
+
+	/**
+	 * Начало комментария с контрольной суммой в последней строке файла.
+	 */
+	public static final String CHECKSUM_PREFIX = "<!-- crc32:";
+
+	private final StringBuilder record = new StringBuilder(1024);
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private int position;
+	private OutputStream out;
+	private final CRC32 checksum = new CRC32();
+
+	/**
+     * Записывает коллекцию объектов Person в XML файл без сжатия.
+     *
+     * @param personMap карта объектов Person для записи
+     * @param filename имя файла для записи
+     * @throws IOException если файл не может быть создан или записан
+     */
+	public void writeMapToXML(PersonMap personMap, String filename) throws IOException {
+		writeMapToXML(personMap, filename, false);
+	}
+
+	/**
+     * Записывает коллекцию объектов Person в XML файл.
+     * Создает форматированный XML документ со всеми полями объектов Person.
+     * Документ пишется во временный файл, который после синхронизации с диском
+     * атомарно заменяет прежний (см. {@link AtomicFile}), поэтому сбой во время
+     * сохранения не повреждает ранее сохраненную коллекцию.
+     *
+     * @param personMap карта объектов Person для записи
+     * @param filename имя файла для записи
+     * @param compressed true - сжать документ в формат gzip (см. {@link Compression})
+     * @throws IOException если файл не может быть создан или записан
+     */
+	public void writeMapToXML(PersonMap personMap, String filename, boolean compressed) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(AtomicFile.tempPath(filename), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			GZIPOutputStream gzip = compressed ? Compression.compress(Channels.newOutputStream(channel)) : null;
+			out = compressed ? gzip : Channels.newOutputStream(channel);
+			position = 0;
+			checksum.reset();
+
+			record.setLength(0);
+			record.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>").append(NEW_LINE);
+			record.append("<collection nextKey=\"").append(CollectionManager.getManager().getNextKey()).append("\">").append(NEW_LINE);
+			flushRecord();
+
+			PersonMap.Cursor cursor = personMap.cursor();
+			while (cursor.hasNext()) {
+				int key = cursor.nextKey();
+				appendPerson(key, cursor.value());
+				flushRecord();
+			}
+
+			record.append("</collection>").append(NEW_LINE);
+			flushRecord();
+			flushBuffer();
+
+			record.append(CHECKSUM_PREFIX).append(String.format("%08x", checksum.getValue())).append(" -->").append(NEW_LINE);
+			flushRecord();
+			flushBuffer();
+			if (gzip != null) gzip.finish();
+			channel.force(true);
+		}
+		finally {
+			out = null;
+		}
+		AtomicFile.replace(filename);
+	}
+
+	/**
+     * Добавляет в буфер записи XML представление одного объекта Person.
+     *
+     * @param key ключ объекта в коллекции
+     * @param person объект для записи
+     */
+	private void appendPerson(int key, Person person) {
+		record.append("    <person>").append(NEW_LINE);
+		record.append("        <id>").append(key).append("</id>").append(NEW_LINE);
+		record.append("        <name>");
+		appendEscaped(person.getName());
+		record.append("</name>").append(NEW_LINE);
+		record.append("        <coordinates>").append(NEW_LINE);
+		record.append("            <x>").append(person.getCoordinates().getX().floatValue()).append("</x>").append(NEW_LINE);
+		record.append("            <y>").append(person.getCoordinates().getY()).append("</y>").append(NEW_LINE);
+		record.append("        </coordinates>").append(NEW_LINE);
+		record.append("        <creationDate>");
+		appendDateTime(person.getCreationDate());
+		record.append("</creationDate>").append(NEW_LINE);
+		record.append("        <height>").append(person.getHeight()).append("</height>").append(NEW_LINE);
+
+		if (person.getBirthday() != null) {
+			record.append("        <birthday>");
+			appendDate(person.getBirthday());
+			record.append("</birthday>").append(NEW_LINE);
+		}
+		if (person.getEyeColor() != null) {
+			record.append("        <eyeColor>").append(person.getEyeColor().name()).append("</eyeColor>").append(NEW_LINE);
+		}
+		if (person.getHairColor() != null) {
+			record.append("        <hairColor>").append(person.getHairColor().name()).append("</hairColor>").append(NEW_LINE);
+		}
+		if (person.getLocation() != null) {
+			record.append("        <location>").append(NEW_LINE);
+			record.append("            <x>").append(person.getLocation().getX().longValue()).append("</x>").append(NEW_LINE);
+			record.append("            <y>").append(person.getLocation().getY().floatValue()).append("</y>").append(NEW_LINE);
+			record.append("            <z>").append(person.getLocation().getZ().intValue()).append("</z>").append(NEW_LINE);
+			record.append("            <name>");
+			appendEscaped(person.getLocation().getName());
+			record.append("</name>").append(NEW_LINE);
+			record.append("        </location>").append(NEW_LINE);
+		}
+		record.append("    </person>").append(NEW_LINE);
+	}
+
+	/**
+     * Добавляет текст, экранируя специальные символы XML.
+     *
+     * @param text текст для записи
+     */
+	private void appendEscaped(String text) {
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == '&') record.append("&amp;");
+			else if (c == '<') record.append("&lt;");
+			else if (c == '>') record.append("&gt;");
+			else record.append(c);
+		}
+	}
+
+	/**
+     * Добавляет дату в формате YYYY-MM-DD, совместимом с LocalDate.parse.
+     *
+     * @param date дата для записи
+     */
+	private void appendDate(LocalDate date) {
+		if (date.getYear() < 0 || date.getYear() > 9999) {
+			record.append(date.toString());
+			return;
+		}
+		appendPadded(date.getYear(), 4);
+		record.append('-');
+		appendPadded(date.getMonthValue(), 2);
+		record.append('-');
+		appendPadded(date.getDayOfMonth(), 2);
+	}
+
+	/**
+     * Добавляет дату и время в формате ISO, совместимом с LocalDateTime.parse.
+     * Доли секунды записываются группами по три цифры, как в LocalDateTime.toString.
+     *
+     * @param dateTime дата и время для записи
+     */
+	private void appendDateTime(LocalDateTime dateTime) {
+		if (dateTime.getYear() < 0 || dateTime.getYear() > 9999) {
+			record.append(dateTime.toString());
+			return;
+		}
+		appendDate(dateTime.toLocalDate());
+		record.append('T');
+		appendPadded(dateTime.getHour(), 2);
+		record.append(':');
+		appendPadded(dateTime.getMinute(), 2);
+		record.append(':');
+		appendPadded(dateTime.getSecond(), 2);
+		int nano = dateTime.getNano();
+		if (nano == 0) return;
+		record.append('.');
+		if (nano % 1000_000 == 0) appendPadded(nano / 1000_000, 3);
+		else if (nano % 1000 == 0) appendPadded(nano / 1000, 6);
+		else appendPadded(nano, 9);
+	}
+
+	/**
+     * Добавляет неотрицательное число, дополняя его нулями слева до заданной ширины.
+     *
+     * @param value число для записи
+     * @param width минимальное количество цифр
+     */
+	private void appendPadded(int value, int width) {
+		for (int limit = 10, digits = 1; digits < width; limit *= 10, digits++) {
+			if (value < limit) record.append('0');
+		}
+		record.append(value);
+	}
+
+	/**
+     * Кодирует накопленную запись в UTF-8 и переносит ее в буфер байтов.
+     *
+     * @throws IOException при ошибке записи в файл
+     */
+	private void flushRecord() throws IOException {
+		for (int i = 0; i < record.length(); i++) {
+			if (position + 4 > buffer.length) flushBuffer();
+			char c = record.charAt(i);
+			if (c < 0x80) {
+				buffer[position++] = (byte) c;
+			}
+			else if (c < 0x800) {
+				buffer[position++] = (byte) (0xC0 | (c >> 6));
+				buffer[position++] = (byte) (0x80 | (c & 0x3F));
+			}
+			else if (Character.isHighSurrogate(c) && i + 1 < record.length()
+					&& Character.isLowSurrogate(record.charAt(i + 1))) {
+				int cp = Character.toCodePoint(c, record.charAt(++i));
+				buffer[position++] = (byte) (0xF0 | (cp >> 18));
+				buffer[position++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+				buffer[position++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+				buffer[position++] = (byte) (0x80 | (cp & 0x3F));
+			}
+			else if (Character.isSurrogate(c)) {
+				buffer[position++] = (byte) '?';
+			}
+			else {
+				buffer[position++] = (byte) (0xE0 | (c >> 12));
+				buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+				buffer[position++] = (byte) (0x80 | (c & 0x3F));
+			}
+		}
+		record.setLength(0);
+	}
+
+	/**
+     * Записывает содержимое буфера байтов в файл и учитывает его в контрольной сумме.
+     *
+     * @throws IOException при ошибке записи в файл
+     */
+	private void flushBuffer() throws IOException {
+		checksum.update(buffer, 0, position);
+		out.write(buffer, 0, position);
+		position = 0;
+	}
+
+}
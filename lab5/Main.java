@@ -12,7 +12,8 @@ import java.io.FileNotFoundException;
 
 import commandManager.Input;
 import exceptions.InputException;
-import fileManager.XMLreader;
+import fileManager.AutoSave;
+import fileManager.FileManager;
 
 public class Main {
 	/**
@@ -21,6 +22,11 @@ public class Main {
      */
 	private static String fileName = "collection.xml";
 
+	/**
+     * Период автоматического сохранения коллекции в секундах.
+     */
+	private static final long AUTOSAVE_PERIOD = 60;
+
 	/**
      * Точка входа в программу.
      * Обрабатывает параметры командной строки и запускает основной цикл работы программы.
@@ -40,20 +46,21 @@ public class Main {
 			return;
 		}
 		
-		XMLreader reader = new XMLreader();
 		try {
-			reader.readMapFromXML(fileName);
+			FileManager.getManager().load(fileName);
 		}
 		catch (FileNotFoundException ex) {
-			System.out.println("XML файл с коллекцией не найден!");
+			System.out.println("Файл с коллекцией не найден!");
 		}
 		catch (Exception ex) {
 			System.out.println("Не удалось прочитать коллецию.");
 		}
 		
+		AutoSave.getAutoSave().start(AUTOSAVE_PERIOD);
 		System.out.println("Вы можете вводить команды. Используйте help для справки.");
 		Input input = Input.getInput();
 		input.readCommands();
+		AutoSave.getAutoSave().stop();
 		System.out.println("Программа завершена.");
 		input.closeScaner();
 	}